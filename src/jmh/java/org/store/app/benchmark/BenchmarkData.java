@@ -0,0 +1,71 @@
+package org.store.app.benchmark;
+
+import org.store.app.common.ValueWrapper;
+import org.store.app.dto.*;
+import org.store.app.enums.AddressType;
+import org.store.app.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetische, deterministische Testdaten für die Benchmarks.
+ */
+final class BenchmarkData {
+
+    private static final String DESCRIPTION = "High quality product with a reasonably long description text used in listings";
+
+    private BenchmarkData() {
+    }
+
+    static ProductInfoDTO productInfo(long productId) {
+        return new ProductInfoDTO("Product " + productId, DESCRIPTION,
+                "https://cdn.example.com/images/products/" + productId + "/main.jpg", 100 + productId % 50);
+    }
+
+    static CartDTO cart(int items) {
+        Random random = new Random(42);
+        List<CartItemDTO> itemDTOS = new ArrayList<>(items);
+        for (long productId = 1; productId <= items; productId++) {
+            itemDTOS.add(new CartItemDTO(productId, 1 + random.nextInt(5), price(random), productInfo(productId)));
+        }
+        return new CartDTO(1L, itemDTOS);
+    }
+
+    static ValueWrapper<List<OrderDTO>> orders(int orders, int itemsPerOrder) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+        CustomerAddressDTO address = CustomerAddressDTO.builder()
+                .id(10L).customerId(1L).addressLine("Hauptstraße 1").city("Berlin").state("Berlin")
+                .postalCode("10115").country("Germany").addressType(AddressType.SHIPPING).defaultAddress(true)
+                .createdAt(now).updatedAt(now)
+                .build();
+        List<OrderDTO> result = new ArrayList<>(orders);
+        for (long orderId = 1; orderId <= orders; orderId++) {
+            List<OrderItemDTO> items = new ArrayList<>(itemsPerOrder);
+            BigDecimal total = BigDecimal.ZERO;
+            for (long i = 1; i <= itemsPerOrder; i++) {
+                BigDecimal unitPrice = price(random);
+                int quantity = 1 + random.nextInt(3);
+                BigDecimal totalPrice = unitPrice.multiply(BigDecimal.valueOf(quantity));
+                total = total.add(totalPrice);
+                items.add(OrderItemDTO.builder()
+                        .id(orderId * 100 + i).productId(i).quantity(quantity).unitPrice(unitPrice).totalPrice(totalPrice)
+                        .ProductInfo(productInfo(i)).canReview(random.nextBoolean()).createdAt(now).updatedAt(now)
+                        .build());
+            }
+            result.add(OrderDTO.builder()
+                    .id(orderId).customerId(1L).cartId(orderId).shippingAddressId(address.getId()).shippingAddress(address)
+                    .status(OrderStatus.PROCESSING).totalAmount(total).items(items).createdAt(now).updatedAt(now)
+                    .build());
+        }
+        return new ValueWrapper<>(result);
+    }
+
+    private static BigDecimal price(Random random) {
+        return BigDecimal.valueOf(100 + random.nextInt(100_000), 2);
+    }
+}
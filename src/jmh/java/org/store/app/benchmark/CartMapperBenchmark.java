@@ -0,0 +1,51 @@
+package org.store.app.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.store.app.dto.CartDTO;
+import org.store.app.mapper.CartMapper;
+import org.store.app.mapper.CartMapperImpl;
+import org.store.app.model.CartItem;
+import org.store.app.service.ProductCatalogSnapshot.ProductSummary;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartMapperBenchmark {
+
+    @Param({"5", "50", "500"})
+    public int size;
+
+    private final CartMapper cartMapper = new CartMapperImpl();
+    private List<CartItem> items;
+    private Map<Long, ProductSummary> products;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        items = new ArrayList<>(size);
+        products = new HashMap<>(size * 2);
+        for (long productId = 1; productId <= size; productId++) {
+            CartItem item = new CartItem();
+            item.setProductId(productId);
+            item.setQuantity((int) (productId % 5) + 1);
+            item.setUnitPrice(BigDecimal.valueOf(1999, 2));
+            items.add(item);
+            products.put(productId, new ProductSummary(productId, "Product " + productId, "Description " + productId,
+                    "https://cdn.example.com/" + productId + ".jpg", BigDecimal.valueOf(1999, 2), 42L));
+        }
+    }
+
+    @Benchmark
+    public CartDTO toDtoFromItems() {
+        return cartMapper.toDtoFromItems(1L, items, products);
+    }
+}
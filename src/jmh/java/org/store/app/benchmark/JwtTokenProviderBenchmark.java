@@ -0,0 +1,65 @@
+package org.store.app.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.store.app.security.config.CookieProperties;
+import org.store.app.security.jwt.JwtTokenProvider;
+import org.store.app.security.userdetails.CustomUserDetails;
+import org.store.app.service.UserPrincipalService;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst den Pfad des JwtAuthenticationFilter: Token validieren und Benutzername lesen.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        byte[] secret = new byte[64];
+        new Random(42).nextBytes(secret);
+        jwtTokenProvider = new JwtTokenProvider(null, Stubs.unused(UserPrincipalService.class), new CookieProperties());
+        String encodedSecret = Base64.getEncoder().encodeToString(secret);
+        for (String field : new String[]{"jwtSecret", "jwtRefreshSecret", "jwtResetSecret", "jwtEmailVerificationSecret"}) {
+            ReflectionTestUtils.setField(jwtTokenProvider, field, encodedSecret);
+        }
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationTime", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtTokenProvider, "claimsCacheMaxEntries", 10_000L);
+        jwtTokenProvider.init();
+
+        CustomUserDetails userDetails = new CustomUserDetails(1L, "customer@example.com", "Customer", "secret",
+                "+49123456", "DE", "+49", List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")), true, 0);
+        token = jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+
+    @Benchmark
+    public String validateAndGetUsername() {
+        jwtTokenProvider.validateToken(token);
+        return jwtTokenProvider.getUsername(token);
+    }
+
+    @Benchmark
+    public String getUsername() {
+        return jwtTokenProvider.getUsername(token);
+    }
+
+    @Benchmark
+    public String parseAccessToken() {
+        return jwtTokenProvider.parseAccessToken(token).getSubject();
+    }
+}
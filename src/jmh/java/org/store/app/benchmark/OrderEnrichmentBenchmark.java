@@ -0,0 +1,109 @@
+package org.store.app.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.store.app.common.cache.OrderCacheVersions;
+import org.store.app.dto.OrderPageDTO;
+import org.store.app.enums.OrderStatus;
+import org.store.app.mapper.OrderItemMapperImpl;
+import org.store.app.mapper.OrderMapperImpl;
+import org.store.app.model.Customer;
+import org.store.app.model.CustomerAddress;
+import org.store.app.model.Order;
+import org.store.app.model.OrderItem;
+import org.store.app.repository.*;
+import org.store.app.service.CartService;
+import org.store.app.service.CustomerAddressService;
+import org.store.app.service.EmailService;
+import org.store.app.service.InventoryQueryService;
+import org.store.app.service.ProductCatalogSnapshot;
+import org.store.app.service.ProductCatalogSnapshot.ProductSummary;
+import org.store.app.service.StockReservationService;
+import org.store.app.service.impl.OrderServiceImpl;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Misst das Mapping und die Anreicherung in OrderServiceImpl.getOrdersByCustomerAndStatus
+ * ohne Datenbank: Repositories und Produktkatalog liefern vorbereitete Daten.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderEnrichmentBenchmark {
+
+    @Param({"10", "50", "100"})
+    public int orders;
+
+    @Param({"3"})
+    public int itemsPerOrder;
+
+    private OrderServiceImpl orderService;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        CustomerAddress address = new CustomerAddress();
+        address.setId(10L);
+        address.setCustomer(customer);
+
+        List<Order> orderEntities = new ArrayList<>(orders);
+        for (long orderId = 1; orderId <= orders; orderId++) {
+            Order order = new Order();
+            order.setId(orderId);
+            order.setCustomer(customer);
+            order.setShippingAddress(address);
+            order.setStatus(OrderStatus.PROCESSING);
+            for (long productId = 1; productId <= itemsPerOrder; productId++) {
+                OrderItem item = new OrderItem();
+                item.setId(orderId * 100 + productId);
+                item.setOrder(order);
+                item.setProductId(orderId * itemsPerOrder + productId);
+                item.setQuantity(1);
+                item.setUnitPrice(BigDecimal.TEN);
+                item.setTotalPrice(BigDecimal.TEN);
+                order.getItems().add(item);
+            }
+            orderEntities.add(order);
+        }
+
+        Map<String, Function<Object[], Object>> orderAnswers = new HashMap<>();
+        List<Long> orderIds = orderEntities.stream().map(Order::getId).toList();
+        orderAnswers.put("findPageIds", args -> orderIds);
+        orderAnswers.put("findWithItemsAndAddressesByIdIn", args -> orderEntities);
+        OrderRepository orderRepository = Stubs.of(OrderRepository.class, orderAnswers);
+        ProductReviewRepository reviewRepository = Stubs.of(ProductReviewRepository.class,
+                Map.of("findProductIdsReviewedByCustomer", args -> Set.of(1L, 2L, 3L)));
+
+        orderService = new OrderServiceImpl(orderRepository, new OrderMapperImpl(),
+                Stubs.unused(CustomerRepository.class), Stubs.unused(CustomerAddressService.class),
+                Stubs.unused(CustomerAddressRepository.class), Stubs.unused(EmailService.class),
+                Stubs.unused(CartService.class), new OrderItemMapperImpl(), reviewRepository,
+                Stubs.of(ProductCatalogSnapshot.class,
+                        Map.of("getProducts", args -> products((Collection<Long>) args[0]))),
+                Stubs.unused(InventoryQueryService.class), Stubs.unused(StockReservationService.class),
+                new OrderCacheVersions(null));
+    }
+
+    private static Map<Long, ProductSummary> products(Collection<Long> productIds) {
+        Map<Long, ProductSummary> result = new HashMap<>(productIds.size() * 2);
+        for (Long productId : productIds) {
+            result.put(productId, new ProductSummary(productId, "Product " + productId, "Description " + productId,
+                    "https://cdn.example.com/" + productId + ".jpg", BigDecimal.TEN, 42L));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public OrderPageDTO getOrdersByCustomerAndStatus() {
+        // Eine Seite mit allen Bestellungen (höchstens die maximale Seitengröße)
+        return orderService.getOrdersByCustomerAndStatus(1L, OrderStatus.PROCESSING, null, orders);
+    }
+}
@@ -0,0 +1,69 @@
+package org.store.app.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.store.app.common.serialization.BinaryRedisSerializer;
+import org.store.app.common.serialization.DtoBinaryCodecs;
+import org.store.app.security.config.RedisConfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergleicht den bisherigen JSON-Serializer (mit @class-Typinformationen) mit dem Binär-Serializer
+ * für die Werte der Caches 'cart' und 'orders'. Payload-Größen werden beim Setup ausgegeben.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisSerializerBenchmark {
+
+    @Param({"5", "50", "200"})
+    public int size;
+
+    @Param({"json", "binary"})
+    public String format;
+
+    private RedisSerializer<Object> serializer;
+    private Object cart;
+    private Object orders;
+    private byte[] cartBytes;
+    private byte[] orderBytes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer(new RedisConfig().objectMapper());
+        serializer = "binary".equals(format)
+                ? new BinaryRedisSerializer(DtoBinaryCodecs.createRegistry(), json, 1024)
+                : json;
+        cart = BenchmarkData.cart(size);
+        orders = BenchmarkData.orders(size, 3);
+        cartBytes = serializer.serialize(cart);
+        orderBytes = serializer.serialize(orders);
+        System.out.printf("%n[%s, size=%d] cart payload: %d bytes, orders payload: %d bytes%n",
+                format, size, cartBytes.length, orderBytes.length);
+    }
+
+    @Benchmark
+    public byte[] serializeCart() {
+        return serializer.serialize(cart);
+    }
+
+    @Benchmark
+    public Object deserializeCart() {
+        return serializer.deserialize(cartBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeOrders() {
+        return serializer.serialize(orders);
+    }
+
+    @Benchmark
+    public Object deserializeOrders() {
+        return serializer.deserialize(orderBytes);
+    }
+}
@@ -0,0 +1,54 @@
+package org.store.app.benchmark;
+
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.store.app.util.RequestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestUtilsBenchmark {
+
+    @Param({"1", "10"})
+    public int cookies;
+
+    private MockHttpServletRequest request;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        request = new MockHttpServletRequest();
+        Cookie[] values = new Cookie[cookies];
+        for (int i = 0; i < cookies - 1; i++) {
+            values[i] = new Cookie("cookie" + i, "value" + i);
+        }
+        // Session-Cookie zuletzt, damit alle Cookies durchsucht werden
+        values[cookies - 1] = new Cookie("sessionId", "3f1c9a2e-7d4b-4c1e-9b8a-1f2e3d4c5b6a");
+        request.setCookies(values);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("customer@example.com", null, List.of()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public String resolveSessionId() {
+        return RequestUtils.resolveSessionId(request);
+    }
+
+    @Benchmark
+    public String getCurrentUserEmail() {
+        return RequestUtils.getCurrentUserEmail();
+    }
+}
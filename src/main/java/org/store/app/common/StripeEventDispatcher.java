@@ -1,27 +1,125 @@
 package org.store.app.common;
 
 import com.stripe.model.Event;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.store.app.service.StripeEventHandlerService;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
+/**
+ * Leitet Stripe-Events an die Handler weiter. Die Zuordnung Event-Typ -> Handler wird beim Start aus
+ * {@link StripeEventHandlerService#eventTypes()} aufgebaut, ein Event kostet damit nur einen Map-Zugriff,
+ * unabhängig von der Anzahl der Handler. Die Handler eines Typs laufen in {@code @Order}-Reihenfolge;
+ * Dauer und Anzahl werden je Typ und Handler als Timer {@code stripe.events.handled} erfasst.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class StripeEventDispatcher {
 
-    private final List<StripeEventHandlerService> handlers;
+    private final Map<String, List<Registration>> registrations;
+    private final MeterRegistry meterRegistry;
+    private final Executor asyncExecutor;
 
-    public void dispatch(Event event) {
+    public StripeEventDispatcher(List<StripeEventHandlerService> handlers,
+                                 MeterRegistry meterRegistry,
+                                 @Qualifier("stripeHandlerExecutor") Executor asyncExecutor) {
+        this.meterRegistry = meterRegistry;
+        this.asyncExecutor = asyncExecutor;
+        Map<String, List<Registration>> byType = new HashMap<>();
+        // Die Liste ist bereits nach @Order sortiert
         for (StripeEventHandlerService handler : handlers) {
-            if (handler.canHandle(event.getType())) {
-                handler.handle(event);
-                return;
+            String handlerName = handlerName(handler);
+            for (String eventType : handler.eventTypes()) {
+                Timer timer = Timer.builder("stripe.events.handled")
+                        .description("Stripe event handling per event type and handler")
+                        .tag("type", eventType)
+                        .tag("handler", handlerName)
+                        .register(meterRegistry);
+                Counter failures = Counter.builder("stripe.events.failed")
+                        .tag("type", eventType)
+                        .tag("handler", handlerName)
+                        .register(meterRegistry);
+                byType.computeIfAbsent(eventType, type -> new ArrayList<>())
+                        .add(new Registration(handler, handlerName, timer, failures));
+            }
+        }
+        byType.replaceAll((type, list) -> List.copyOf(list));
+        this.registrations = Map.copyOf(byType);
+        log.info("Registered Stripe event handlers for types {}", registrations.keySet());
+    }
+
+    public void dispatch(Event event) {
+        List<Registration> handlers = registrations.get(event.getType());
+        if (handlers == null) {
+            meterRegistry.counter("stripe.events.unhandled", "type", event.getType()).increment();
+            log.info("No handler found for event type: {}", event.getType());
+            return;
+        }
+        for (Registration registration : handlers) {
+            if (registration.handler().async()) {
+                runAfterCommit(() -> handleAsync(registration, event));
+            } else {
+                handle(registration, event);
             }
         }
-        log.info("No handler found for event type: {}", event.getType());
+    }
+
+    private void handle(Registration registration, Event event) {
+        try {
+            registration.timer().record(() -> registration.handler().handle(event));
+        } catch (RuntimeException e) {
+            registration.failures().increment();
+            throw e;
+        }
+    }
+
+    private void handleAsync(Registration registration, Event event) {
+        try {
+            asyncExecutor.execute(() -> {
+                try {
+                    handle(registration, event);
+                } catch (Exception e) {
+                    log.error("Async Stripe handler {} failed for event {} ({})", registration.name(), event.getId(), event.getType(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            registration.failures().increment();
+            log.error("Async Stripe handler {} rejected for event {} ({})", registration.name(), event.getId(), event.getType());
+        }
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String handlerName(StripeEventHandlerService handler) {
+        // Spring-Proxies (CGLIB) tragen einen generierten Suffix im Klassennamen
+        String name = handler.getClass().getSimpleName();
+        int proxySuffix = name.indexOf("$$");
+        return proxySuffix > 0 ? name.substring(0, proxySuffix) : name;
+    }
+
+    private record Registration(StripeEventHandlerService handler, String name, Timer timer, Counter failures) {
     }
 }
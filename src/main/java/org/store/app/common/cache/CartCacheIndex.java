@@ -0,0 +1,51 @@
+package org.store.app.common.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.store.app.security.config.CachePolicyProperties;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Reverse-Index cartId -> sessionIds, unter denen der Warenkorb im Cache 'cart' liegt.
+ * Ermöglicht das gezielte Evicten einzelner 'session:&lt;id&gt;'-Keys statt allEntries.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CartCacheIndex {
+
+    private static final String KEY_PREFIX = "cart:sessions:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final CachePolicyProperties cachePolicies;
+
+    public void register(Long cartId, String sessionId) {
+        if (cartId == null || sessionId == null || sessionId.isBlank()) {
+            return;
+        }
+        try {
+            String key = KEY_PREFIX + cartId;
+            redisTemplate.opsForSet().add(key, sessionId);
+            // Der Index lebt mindestens so lange wie die Cache-Einträge selbst
+            redisTemplate.expire(key, cachePolicies.ttlFor("cart"));
+        } catch (Exception e) {
+            log.warn("Failed to register sessionId for cartId={} in cart cache index: {}", cartId, e.getMessage());
+        }
+    }
+
+    public Set<String> removeAll(Long cartId) {
+        try {
+            String key = KEY_PREFIX + cartId;
+            Set<String> sessionIds = redisTemplate.opsForSet().members(key);
+            redisTemplate.delete(key);
+            return sessionIds != null ? sessionIds : Collections.emptySet();
+        } catch (Exception e) {
+            log.warn("Failed to read cart cache index for cartId={}: {}", cartId, e.getMessage());
+            return Collections.emptySet();
+        }
+    }
+}
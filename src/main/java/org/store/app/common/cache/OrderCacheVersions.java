@@ -0,0 +1,76 @@
+package org.store.app.common.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Versionszähler je Kunde für die Seiten im Cache 'orders'. Die Version ist Teil jedes Cache-Keys;
+ * {@link #bump} macht damit alle gecachten Seiten eines Kunden ungültig, die alten Einträge laufen
+ * über ihre TTL aus. Der Versions-Key selbst hat keine TTL, und eine neue Version ist nie kleiner als
+ * der aktuelle Zeitstempel in Millisekunden. Auch nach einem Verlust des Keys wird daher keine
+ * Version wiederverwendet, unter der noch alte Seiten liegen könnten.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderCacheVersions {
+
+    private static final String KEY_PREFIX = "orders:version:";
+
+    // INCR, mindestens aber auf den übergebenen Zeitstempel, damit Versionen streng monoton bleiben
+    private static final RedisScript<Long> BUMP_VERSION = RedisScript.of("""
+            local version = redis.call('INCR', KEYS[1])
+            local floor = tonumber(ARGV[1])
+            if version < floor then
+                redis.call('SET', KEYS[1], floor)
+                return floor
+            end
+            return version
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public long current(Long customerId) {
+        try {
+            String value = redisTemplate.opsForValue().get(KEY_PREFIX + customerId);
+            return value != null ? Long.parseLong(value) : 0L;
+        } catch (Exception e) {
+            log.warn("Failed to read order cache version for customerId={}: {}", customerId, e.getMessage());
+            return 0L;
+        }
+    }
+
+    /**
+     * Erhöht die Version nach dem Commit der laufenden Transaktion, damit keine Seite mit
+     * noch nicht sichtbaren Daten unter der neuen Version gecacht wird.
+     */
+    public void bump(Long customerId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(customerId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                increment(customerId);
+            }
+        });
+    }
+
+    private void increment(Long customerId) {
+        try {
+            Long version = redisTemplate.execute(BUMP_VERSION, List.of(KEY_PREFIX + customerId),
+                    String.valueOf(System.currentTimeMillis()));
+            log.info("Order cache version bumped to {} for customerId={}", version, customerId);
+        } catch (Exception e) {
+            log.warn("Failed to bump order cache version for customerId={}: {}", customerId, e.getMessage());
+        }
+    }
+}
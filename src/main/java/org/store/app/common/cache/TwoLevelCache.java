@@ -0,0 +1,197 @@
+package org.store.app.common.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cache mit zwei Ebenen: ein begrenzter In-Process-Cache (L1) vor dem Redis-Cache (L2).
+ * Lesezugriffe werden zuerst lokal bedient, Evictions werden über Redis Pub/Sub
+ * an alle anderen Knoten verteilt.
+ * Werte im L1 werden per Referenz gehalten und dürfen nach dem Caching nicht verändert werden.
+ * Treffer, Fehlzugriffe und Evictions werden als {@code cache.requests} bzw. {@code cache.evictions} gezählt,
+ * die Trefferquote über beide Ebenen als {@code cache.hit.ratio}.
+ */
+@Slf4j
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> localCache;
+    private final Cache remoteCache;
+    private final TwoLevelCacheManager cacheManager;
+    private final Counter localHits;
+    private final Counter remoteHits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> localCache,
+                         Cache remoteCache,
+                         TwoLevelCacheManager cacheManager,
+                         MeterRegistry meterRegistry) {
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.cacheManager = cacheManager;
+        this.localHits = requestCounter(meterRegistry, "hit", "local");
+        this.remoteHits = requestCounter(meterRegistry, "hit", "remote");
+        this.misses = requestCounter(meterRegistry, "miss", "remote");
+        this.evictions = Counter.builder("cache.evictions")
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("cache.hit.ratio", this, TwoLevelCache::hitRatio)
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    private double hitRatio() {
+        double hits = localHits.count() + remoteHits.count();
+        double total = hits + misses.count();
+        return total == 0 ? 0 : hits / total;
+    }
+
+    private Counter requestCounter(MeterRegistry meterRegistry, String result, String tier) {
+        return Counter.builder("cache.requests")
+                .tag("cache", name)
+                .tag("result", result)
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remoteCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = toLocalKey(key);
+        ValueWrapper local = localCache.getIfPresent(localKey);
+        if (local != null) {
+            localHits.increment();
+            return local;
+        }
+        ValueWrapper remote = readRemote(key);
+        if (remote != null) {
+            remoteHits.increment();
+            localCache.put(localKey, new SimpleValueWrapper(remote.get()));
+        } else {
+            misses.increment();
+        }
+        return remote;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        Object value = wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = toLocalKey(key);
+        ValueWrapper local = localCache.getIfPresent(localKey);
+        if (local != null) {
+            localHits.increment();
+            return (T) local.get();
+        }
+        T value = remoteCache.get(key, valueLoader);
+        localCache.put(localKey, new SimpleValueWrapper(value));
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remoteCache.put(key, value);
+        localCache.put(toLocalKey(key), new SimpleValueWrapper(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remoteCache.putIfAbsent(key, value);
+        localCache.invalidate(toLocalKey(key));
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        evictLocal(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remoteCache.evictIfPresent(key);
+        evictLocal(key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        clearLocal();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remoteCache.invalidate();
+        clearLocal();
+        return invalidated;
+    }
+
+    private ValueWrapper readRemote(Object key) {
+        try {
+            return remoteCache.get(key);
+        } catch (SerializationException e) {
+            // z.B. Eintrag eines neueren Knotens mit unbekannter Codec-Version: wie ein Miss behandeln
+            log.warn("Unreadable entry in cache '{}' for key '{}', treating as miss: {}", name, key, e.getMessage());
+            remoteCache.evict(key);
+            return null;
+        }
+    }
+
+    void evictLocalOnly(String localKey) {
+        localCache.invalidate(localKey);
+    }
+
+    void clearLocalOnly() {
+        localCache.invalidateAll();
+    }
+
+    private void evictLocal(Object key) {
+        evictions.increment();
+        String localKey = toLocalKey(key);
+        localCache.invalidate(localKey);
+        cacheManager.publishEviction(name, localKey);
+    }
+
+    private void clearLocal() {
+        evictions.increment();
+        localCache.invalidateAll();
+        cacheManager.publishClear(name);
+    }
+
+    static String toLocalKey(Object key) {
+        return String.valueOf(key);
+    }
+}
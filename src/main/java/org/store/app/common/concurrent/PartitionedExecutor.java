@@ -0,0 +1,62 @@
+package org.store.app.common.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verteilt Aufgaben nach Schlüssel auf einzelne Worker-Threads. Aufgaben mit demselben Schlüssel laufen
+ * nacheinander in Einreihungsreihenfolge, unterschiedliche Schlüssel parallel. Jede Partition hat eine
+ * begrenzte Queue; ist sie voll, wird {@link RejectedExecutionException} geworfen.
+ */
+@Slf4j
+public class PartitionedExecutor {
+
+    private final ThreadPoolExecutor[] partitions;
+
+    public PartitionedExecutor(String name, int partitionCount, int queueCapacity) {
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("partitionCount must be positive");
+        }
+        this.partitions = new ThreadPoolExecutor[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            String threadName = name + "-" + i;
+            partitions[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> new Thread(runnable, threadName),
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+
+    public void execute(long key, Runnable task) {
+        partitions[Math.floorMod(Long.hashCode(key), partitions.length)].execute(task);
+    }
+
+    public int queuedTasks() {
+        int queued = 0;
+        for (ThreadPoolExecutor partition : partitions) {
+            queued += partition.getQueue().size();
+        }
+        return queued;
+    }
+
+    public void shutdown() {
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.shutdown();
+        }
+        for (ThreadPoolExecutor partition : partitions) {
+            try {
+                if (!partition.awaitTermination(30, TimeUnit.SECONDS)) {
+                    log.warn("Partition did not terminate in time, {} tasks left", partition.getQueue().size());
+                    partition.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                partition.shutdownNow();
+            }
+        }
+    }
+}
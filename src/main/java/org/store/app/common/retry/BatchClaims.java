@@ -0,0 +1,34 @@
+package org.store.app.common.retry;
+
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Übernimmt einen Block fälliger Einträge einer {@link ClaimableRepository} in einer eigenen Transaktion.
+ */
+public final class BatchClaims {
+
+    private BatchClaims() {
+    }
+
+    public static <T> List<T> claimDue(TransactionTemplate transactionTemplate, ClaimableRepository<T> repository,
+                                       Duration claimTimeout, int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        String claimToken = UUID.randomUUID().toString();
+        List<T> claimed = transactionTemplate.execute(status -> {
+            repository.releaseStaleClaims(now.minus(claimTimeout));
+            List<Long> ids = repository.findIdsDue(now, batchSize);
+            if (ids.isEmpty()) {
+                return Collections.<T>emptyList();
+            }
+            repository.claim(ids, claimToken, now);
+            return repository.findByClaimToken(claimToken);
+        });
+        return claimed != null ? claimed : Collections.emptyList();
+    }
+}
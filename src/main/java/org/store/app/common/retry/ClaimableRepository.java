@@ -0,0 +1,28 @@
+package org.store.app.common.retry;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Tabelle, deren fällige Einträge blockweise per Claim-Token übernommen werden (siehe {@link BatchClaims}).
+ * Die Repositories setzen die Methoden als {@code default}-Methoden mit ihren eigenen Status-Werten um.
+ */
+public interface ClaimableRepository<T> {
+
+    /**
+     * Gibt Einträge frei, deren Lauf vor {@code cutoff} begonnen hat und nie abgeschlossen wurde
+     * (z. B. Neustart des Knotens).
+     */
+    int releaseStaleClaims(LocalDateTime cutoff);
+
+    List<Long> findIdsDue(LocalDateTime now, int limit);
+
+    /**
+     * Setzt den {@code claimToken} für die noch offenen Einträge unter {@code ids}. Parallele Knoten können
+     * dieselben IDs gelesen haben; nur der erste übernimmt sie, der Status-Check verhindert doppelte Verarbeitung.
+     */
+    int claim(Collection<Long> ids, String claimToken, LocalDateTime now);
+
+    List<T> findByClaimToken(String claimToken);
+}
@@ -0,0 +1,34 @@
+package org.store.app.common.retry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Exponentieller Backoff für erneut versuchte Einträge: {@code initialBackoff}, danach jeweils verdoppelt bis
+ * {@code maxBackoff}. Nach {@code maxAttempts} Versuchen wird aufgegeben.
+ */
+public record RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+
+    // Länge der Spalte 'last_error'
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    public boolean isExhausted(int attempts) {
+        return attempts >= maxAttempts;
+    }
+
+    /**
+     * Zeitpunkt des nächsten Versuchs nach dem {@code attempts}-ten Fehlschlag.
+     */
+    public LocalDateTime nextAttemptAt(int attempts, LocalDateTime now) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return now.plus(backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff);
+    }
+
+    public static String errorMessage(Exception error) {
+        String message = error.getMessage();
+        if (message == null) {
+            return null;
+        }
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
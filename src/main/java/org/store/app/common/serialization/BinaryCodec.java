@@ -0,0 +1,47 @@
+package org.store.app.common.serialization;
+
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * Kodiert genau einen registrierten Typ im kompakten Binärformat.
+ * Die Version wird mit jedem Wert geschrieben, damit {@link #read} ältere Layouts weiterhin lesen kann.
+ *
+ * @param <T> kodierter Typ
+ */
+public interface BinaryCodec<T> {
+
+    Class<T> type();
+
+    int version();
+
+    void write(BinaryOutput out, T value);
+
+    T read(BinaryInput in, int version);
+
+    static <T> BinaryCodec<T> of(Class<T> type, int version,
+                                 BiConsumer<BinaryOutput, T> writer,
+                                 BiFunction<BinaryInput, Integer, T> reader) {
+        return new BinaryCodec<>() {
+            @Override
+            public Class<T> type() {
+                return type;
+            }
+
+            @Override
+            public int version() {
+                return version;
+            }
+
+            @Override
+            public void write(BinaryOutput out, T value) {
+                writer.accept(out, value);
+            }
+
+            @Override
+            public T read(BinaryInput in, int version) {
+                return reader.apply(in, version);
+            }
+        };
+    }
+}
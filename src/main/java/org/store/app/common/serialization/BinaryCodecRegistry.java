@@ -0,0 +1,138 @@
+package org.store.app.common.serialization;
+
+import org.springframework.data.redis.serializer.SerializationException;
+import org.store.app.common.ValueWrapper;
+
+import java.io.Serial;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry der Binär-Codecs. Jeder Typ wird explizit mit einer festen Typ-ID registriert;
+ * IDs dürfen nach dem Ausrollen nicht mehr geändert oder wiederverwendet werden.
+ * IDs unterhalb von {@link #FIRST_CUSTOM_TYPE_ID} sind für eingebaute Typen reserviert.
+ */
+public class BinaryCodecRegistry {
+
+    public static final int FIRST_CUSTOM_TYPE_ID = 32;
+
+    private static final int NULL = 0;
+    private static final int TRUE = 1;
+    private static final int FALSE = 2;
+    private static final int LONG = 3;
+    private static final int INTEGER = 4;
+    private static final int STRING = 5;
+    private static final int LIST = 6;
+    private static final int VALUE_WRAPPER = 7;
+    private static final int DOUBLE = 8;
+    private static final int BIG_DECIMAL = 9;
+
+    private final Map<Class<?>, Registration> byType = new HashMap<>();
+    private final Map<Integer, Registration> byId = new HashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <T> BinaryCodecRegistry register(int typeId, BinaryCodec<T> codec) {
+        if (typeId < FIRST_CUSTOM_TYPE_ID) {
+            throw new IllegalArgumentException("Type id " + typeId + " is reserved");
+        }
+        if (byId.containsKey(typeId) || byType.containsKey(codec.type())) {
+            throw new IllegalArgumentException("Duplicate registration for type id " + typeId + " / " + codec.type().getName());
+        }
+        Registration registration = new Registration(typeId, (BinaryCodec<Object>) codec);
+        byId.put(typeId, registration);
+        byType.put(codec.type(), registration);
+        return this;
+    }
+
+    void write(BinaryOutput out, Object value) {
+        if (value == null) {
+            out.writeVarInt(NULL);
+        } else if (value instanceof Boolean b) {
+            out.writeVarInt(b ? TRUE : FALSE);
+        } else if (value instanceof Long l) {
+            out.writeVarInt(LONG);
+            out.writeVarLong(l);
+        } else if (value instanceof Integer i) {
+            out.writeVarInt(INTEGER);
+            out.writeVarInt(i);
+        } else if (value instanceof String s) {
+            out.writeVarInt(STRING);
+            out.writeString(s);
+        } else if (value instanceof Double d) {
+            out.writeVarInt(DOUBLE);
+            out.writeDouble(d);
+        } else if (value instanceof BigDecimal d) {
+            out.writeVarInt(BIG_DECIMAL);
+            out.writeBigDecimal(d);
+        } else if (value instanceof List<?> list) {
+            out.writeVarInt(LIST);
+            out.writeVarInt(list.size());
+            for (Object element : list) {
+                write(out, element);
+            }
+        } else if (value instanceof ValueWrapper<?> wrapper) {
+            out.writeVarInt(VALUE_WRAPPER);
+            write(out, wrapper.getValue());
+        } else {
+            Registration registration = byType.get(value.getClass());
+            if (registration == null) {
+                throw new UnregisteredTypeException(value.getClass());
+            }
+            out.writeVarInt(registration.typeId());
+            out.writeVarInt(registration.codec().version());
+            registration.codec().write(out, value);
+        }
+    }
+
+    Object read(BinaryInput in) {
+        int typeId = in.readVarInt();
+        return switch (typeId) {
+            case NULL -> null;
+            case TRUE -> Boolean.TRUE;
+            case FALSE -> Boolean.FALSE;
+            case LONG -> in.readVarLong();
+            case INTEGER -> in.readVarInt();
+            case STRING -> in.readString();
+            case DOUBLE -> in.readDouble();
+            case BIG_DECIMAL -> in.readBigDecimal();
+            case LIST -> {
+                int size = in.readVarInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(read(in));
+                }
+                yield list;
+            }
+            case VALUE_WRAPPER -> new ValueWrapper<>(read(in));
+            default -> {
+                Registration registration = byId.get(typeId);
+                if (registration == null) {
+                    throw new SerializationException("Unknown binary type id " + typeId);
+                }
+                int version = in.readVarInt();
+                if (version > registration.codec().version()) {
+                    throw new SerializationException("Unsupported version " + version + " for " + registration.codec().type().getName());
+                }
+                yield registration.codec().read(in, version);
+            }
+        };
+    }
+
+    private record Registration(int typeId, BinaryCodec<Object> codec) {
+    }
+
+    /**
+     * Wird geworfen, wenn ein Wert keinen registrierten Codec hat; der Serializer fällt dann auf JSON zurück.
+     */
+    public static class UnregisteredTypeException extends SerializationException {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        public UnregisteredTypeException(Class<?> type) {
+            super("No binary codec registered for " + type.getName());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.store.app.common.serialization;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gegenstück zu {@link BinaryOutput}.
+ */
+public class BinaryInput {
+
+    private final byte[] data;
+    private final BinaryCodecRegistry registry;
+    private int position;
+
+    public BinaryInput(byte[] data, int offset, BinaryCodecRegistry registry) {
+        this.data = data;
+        this.position = offset;
+        this.registry = registry;
+    }
+
+    public int readByte() {
+        if (position >= data.length) {
+            throw new SerializationException("Unexpected end of binary cache value");
+        }
+        return data[position++] & 0xFF;
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public Boolean readNullableBoolean() {
+        int value = readByte();
+        return value == 0 ? null : value == 2;
+    }
+
+    public long readVarLong() {
+        long result = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (shift > 63) {
+                throw new SerializationException("Malformed varint in binary cache value");
+            }
+            b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (result >>> 1) ^ -(result & 1);
+    }
+
+    public int readVarInt() {
+        return (int) readVarLong();
+    }
+
+    public Long readLong() {
+        return readBoolean() ? readVarLong() : null;
+    }
+
+    public Integer readInteger() {
+        return readBoolean() ? readVarInt() : null;
+    }
+
+    public Double readDouble() {
+        if (!readBoolean()) {
+            return null;
+        }
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | readByte();
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    public String readString() {
+        int length = readVarInt();
+        if (length == 0) {
+            return null;
+        }
+        int byteCount = length - 1;
+        ensureAvailable(byteCount);
+        String value = new String(data, position, byteCount, StandardCharsets.UTF_8);
+        position += byteCount;
+        return value;
+    }
+
+    public BigDecimal readBigDecimal() {
+        if (!readBoolean()) {
+            return null;
+        }
+        int scale = readVarInt();
+        byte[] unscaled = readBytes(readVarInt());
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    public LocalDateTime readDateTime() {
+        if (!readBoolean()) {
+            return null;
+        }
+        long epochSecond = readVarLong();
+        int nano = readVarInt();
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    public <E extends Enum<E>> E readEnum(Class<E> type) {
+        String name = readString();
+        return name != null ? Enum.valueOf(type, name) : null;
+    }
+
+    public <T> T readNested(BinaryCodec<T> codec) {
+        if (!readBoolean()) {
+            return null;
+        }
+        int version = readVarInt();
+        if (version > codec.version()) {
+            throw new SerializationException("Unsupported version " + version + " for " + codec.type().getName());
+        }
+        return codec.read(this, version);
+    }
+
+    public <T> List<T> readList(BinaryCodec<T> elementCodec) {
+        int size = readVarInt();
+        if (size == 0) {
+            return null;
+        }
+        List<T> values = new ArrayList<>(size - 1);
+        for (int i = 0; i < size - 1; i++) {
+            values.add(readNested(elementCodec));
+        }
+        return values;
+    }
+
+    public Object readObject() {
+        return registry.read(this);
+    }
+
+    private void ensureAvailable(int length) {
+        if (length < 0 || position + length > data.length) {
+            throw new SerializationException("Unexpected end of binary cache value");
+        }
+    }
+
+    private byte[] readBytes(int length) {
+        ensureAvailable(length);
+        byte[] bytes = new byte[length];
+        System.arraycopy(data, position, bytes, 0, length);
+        position += length;
+        return bytes;
+    }
+}
@@ -0,0 +1,137 @@
+package org.store.app.common.serialization;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Schreibt Werte mit variabler Länge (Varints), damit kleine Zahlen und kurze Strings nur wenige Bytes belegen.
+ * Nullable Werte werden mit einem Präsenz-Präfix kodiert.
+ */
+public class BinaryOutput {
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+    private final BinaryCodecRegistry registry;
+
+    public BinaryOutput(BinaryCodecRegistry registry) {
+        this.registry = registry;
+    }
+
+    public byte[] toByteArray() {
+        return buffer.toByteArray();
+    }
+
+    public void writeByte(int value) {
+        buffer.write(value);
+    }
+
+    public void writeBoolean(boolean value) {
+        buffer.write(value ? 1 : 0);
+    }
+
+    public void writeNullableBoolean(Boolean value) {
+        buffer.write(value == null ? 0 : value ? 2 : 1);
+    }
+
+    public void writeVarLong(long value) {
+        // ZigZag, damit auch negative Werte kompakt bleiben
+        long v = (value << 1) ^ (value >> 63);
+        while ((v & ~0x7FL) != 0) {
+            buffer.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buffer.write((int) v);
+    }
+
+    public void writeVarInt(int value) {
+        writeVarLong(value);
+    }
+
+    public void writeLong(Long value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeVarLong(value);
+        }
+    }
+
+    public void writeInteger(Integer value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeVarInt(value);
+        }
+    }
+
+    public void writeDouble(Double value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            long bits = Double.doubleToLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer.write((int) (bits >>> shift));
+            }
+        }
+    }
+
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1);
+        buffer.writeBytes(bytes);
+    }
+
+    public void writeBigDecimal(BigDecimal value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeVarInt(value.scale());
+            byte[] unscaled = value.unscaledValue().toByteArray();
+            writeVarInt(unscaled.length);
+            buffer.writeBytes(unscaled);
+        }
+    }
+
+    public void writeDateTime(LocalDateTime value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeVarLong(value.toEpochSecond(ZoneOffset.UTC));
+            writeVarInt(value.getNano());
+        }
+    }
+
+    public void writeEnum(Enum<?> value) {
+        writeString(value != null ? value.name() : null);
+    }
+
+    /**
+     * Schreibt einen Wert bekannten Typs ohne Typ-ID, aber mit Präsenz-Flag und Codec-Version.
+     */
+    public <T> void writeNested(T value, BinaryCodec<T> codec) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeVarInt(codec.version());
+            codec.write(this, value);
+        }
+    }
+
+    public <T> void writeList(List<T> values, BinaryCodec<T> elementCodec) {
+        if (values == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(values.size() + 1);
+        for (T value : values) {
+            writeNested(value, elementCodec);
+        }
+    }
+
+    /**
+     * Schreibt einen Wert beliebigen registrierten Typs inklusive Typ-ID.
+     */
+    public void writeObject(Object value) {
+        registry.write(this, value);
+    }
+}
@@ -0,0 +1,112 @@
+package org.store.app.common.serialization;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Kompakter Binär-Serializer für Cache-Werte ohne @class-Typinformationen.
+ * Format: [MAGIC][flags][payload], wobei der Payload oberhalb der Schwelle komprimiert wird.
+ * Werte ohne registrierten Codec (z.B. NullValue) sowie ältere JSON-Einträge werden
+ * über den Fallback-Serializer geschrieben bzw. gelesen.
+ */
+@Slf4j
+public class BinaryRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xB1;
+    private static final int FLAG_COMPRESSED = 1;
+    private static final int HEADER_LENGTH = 2;
+
+    private final BinaryCodecRegistry registry;
+    private final RedisSerializer<Object> fallback;
+    private final int compressionThreshold;
+
+    public BinaryRedisSerializer(BinaryCodecRegistry registry, RedisSerializer<Object> fallback, int compressionThreshold) {
+        this.registry = registry;
+        this.fallback = fallback;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        BinaryOutput out = new BinaryOutput(registry);
+        try {
+            out.writeObject(value);
+        } catch (BinaryCodecRegistry.UnregisteredTypeException e) {
+            log.debug("Falling back to JSON cache serialization: {}", e.getMessage());
+            return fallback.serialize(value);
+        }
+        byte[] payload = out.toByteArray();
+        boolean compress = compressionThreshold > 0 && payload.length >= compressionThreshold;
+        if (compress) {
+            payload = deflate(payload);
+        }
+        byte[] result = new byte[payload.length + HEADER_LENGTH];
+        result[0] = MAGIC;
+        result[1] = (byte) (compress ? FLAG_COMPRESSED : 0);
+        System.arraycopy(payload, 0, result, HEADER_LENGTH, payload.length);
+        return result;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH) {
+            throw new SerializationException("Truncated binary cache value");
+        }
+        if ((bytes[1] & FLAG_COMPRESSED) != 0) {
+            return new BinaryInput(inflate(bytes), 0, registry).readObject();
+        }
+        return new BinaryInput(bytes, HEADER_LENGTH, registry).readObject();
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, HEADER_LENGTH, data.length - HEADER_LENGTH);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SerializationException("Truncated compressed cache value");
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SerializationException("Corrupt compressed cache value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
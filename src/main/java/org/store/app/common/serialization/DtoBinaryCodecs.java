@@ -0,0 +1,228 @@
+package org.store.app.common.serialization;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.store.app.dto.*;
+import org.store.app.enums.AddressType;
+import org.store.app.enums.OrderStatus;
+import org.store.app.security.userdetails.CustomUserDetails;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binär-Codecs der gecachten DTOs. Neue Felder werden nur am Ende angehängt und erhöhen die Version;
+ * {@code read} muss alle älteren Versionen weiterhin unterstützen.
+ */
+public final class DtoBinaryCodecs {
+
+    public static final BinaryCodec<ProductInfoDTO> PRODUCT_INFO = BinaryCodec.of(ProductInfoDTO.class, 1,
+            (out, dto) -> {
+                out.writeString(dto.getName());
+                out.writeString(dto.getDescription());
+                out.writeString(dto.getImageUrl());
+                out.writeLong(dto.getTotalStock());
+            },
+            (in, version) -> {
+                ProductInfoDTO dto = new ProductInfoDTO();
+                dto.setName(in.readString());
+                dto.setDescription(in.readString());
+                dto.setImageUrl(in.readString());
+                dto.setTotalStock(in.readLong());
+                return dto;
+            });
+
+    public static final BinaryCodec<CartItemDTO> CART_ITEM = BinaryCodec.of(CartItemDTO.class, 1,
+            (out, dto) -> {
+                out.writeLong(dto.getProductId());
+                out.writeVarInt(dto.getQuantity());
+                out.writeBigDecimal(dto.getUnitPrice());
+                out.writeNested(dto.getProduct(), PRODUCT_INFO);
+            },
+            (in, version) -> new CartItemDTO(in.readLong(), in.readVarInt(), in.readBigDecimal(), in.readNested(PRODUCT_INFO)));
+
+    public static final BinaryCodec<CartDTO> CART = BinaryCodec.of(CartDTO.class, 1,
+            (out, dto) -> {
+                out.writeLong(dto.getCartId());
+                out.writeList(dto.getItemDTOS(), CART_ITEM);
+            },
+            (in, version) -> new CartDTO(in.readLong(), in.readList(CART_ITEM)));
+
+    public static final BinaryCodec<WishlistItemDTO> WISHLIST_ITEM = BinaryCodec.of(WishlistItemDTO.class, 1,
+            (out, dto) -> {
+                out.writeLong(dto.getProductId());
+                out.writeBigDecimal(dto.getUnitPrice());
+                out.writeNested(dto.getProduct(), PRODUCT_INFO);
+            },
+            (in, version) -> new WishlistItemDTO(in.readLong(), in.readBigDecimal(), in.readNested(PRODUCT_INFO)));
+
+    public static final BinaryCodec<CustomerAddressDTO> CUSTOMER_ADDRESS = BinaryCodec.of(CustomerAddressDTO.class, 1,
+            (out, dto) -> {
+                writeBase(out, dto);
+                out.writeLong(dto.getCustomerId());
+                out.writeString(dto.getAddressLine());
+                out.writeString(dto.getCity());
+                out.writeString(dto.getState());
+                out.writeString(dto.getPostalCode());
+                out.writeString(dto.getCountry());
+                out.writeEnum(dto.getAddressType());
+                out.writeNullableBoolean(dto.getDefaultAddress());
+            },
+            (in, version) -> {
+                CustomerAddressDTO dto = new CustomerAddressDTO();
+                readBase(in, dto);
+                dto.setCustomerId(in.readLong());
+                dto.setAddressLine(in.readString());
+                dto.setCity(in.readString());
+                dto.setState(in.readString());
+                dto.setPostalCode(in.readString());
+                dto.setCountry(in.readString());
+                dto.setAddressType(in.readEnum(AddressType.class));
+                dto.setDefaultAddress(in.readNullableBoolean());
+                return dto;
+            });
+
+    public static final BinaryCodec<OrderItemDTO> ORDER_ITEM = BinaryCodec.of(OrderItemDTO.class, 1,
+            (out, dto) -> {
+                writeBase(out, dto);
+                out.writeLong(dto.getProductId());
+                out.writeInteger(dto.getQuantity());
+                out.writeBigDecimal(dto.getUnitPrice());
+                out.writeBigDecimal(dto.getTotalPrice());
+                out.writeNested(dto.getProductInfo(), PRODUCT_INFO);
+                out.writeBoolean(dto.isCanReview());
+            },
+            (in, version) -> {
+                OrderItemDTO dto = new OrderItemDTO();
+                readBase(in, dto);
+                dto.setProductId(in.readLong());
+                dto.setQuantity(in.readInteger());
+                dto.setUnitPrice(in.readBigDecimal());
+                dto.setTotalPrice(in.readBigDecimal());
+                dto.setProductInfo(in.readNested(PRODUCT_INFO));
+                dto.setCanReview(in.readBoolean());
+                return dto;
+            });
+
+    public static final BinaryCodec<OrderDTO> ORDER = BinaryCodec.of(OrderDTO.class, 1,
+            (out, dto) -> {
+                writeBase(out, dto);
+                out.writeLong(dto.getCustomerId());
+                out.writeLong(dto.getCartId());
+                out.writeLong(dto.getShippingAddressId());
+                out.writeNested(dto.getShippingAddress(), CUSTOMER_ADDRESS);
+                out.writeLong(dto.getBillingAddressId());
+                out.writeNested(dto.getBillingAddress(), CUSTOMER_ADDRESS);
+                out.writeEnum(dto.getStatus());
+                out.writeBigDecimal(dto.getTotalAmount());
+                out.writeList(dto.getItems(), ORDER_ITEM);
+            },
+            (in, version) -> {
+                OrderDTO dto = new OrderDTO();
+                readBase(in, dto);
+                dto.setCustomerId(in.readLong());
+                dto.setCartId(in.readLong());
+                dto.setShippingAddressId(in.readLong());
+                dto.setShippingAddress(in.readNested(CUSTOMER_ADDRESS));
+                dto.setBillingAddressId(in.readLong());
+                dto.setBillingAddress(in.readNested(CUSTOMER_ADDRESS));
+                dto.setStatus(in.readEnum(OrderStatus.class));
+                dto.setTotalAmount(in.readBigDecimal());
+                dto.setItems(in.readList(ORDER_ITEM));
+                return dto;
+            });
+
+    public static final BinaryCodec<OrderPageDTO> ORDER_PAGE = BinaryCodec.of(OrderPageDTO.class, 1,
+            (out, dto) -> {
+                out.writeList(dto.getOrders(), ORDER);
+                out.writeString(dto.getNextCursor());
+            },
+            (in, version) -> new OrderPageDTO(in.readList(ORDER), in.readString()));
+
+    public static final BinaryCodec<ProductReviewDTO> PRODUCT_REVIEW = BinaryCodec.of(ProductReviewDTO.class, 1,
+            (out, dto) -> {
+                writeBase(out, dto);
+                out.writeLong(dto.getProductId());
+                out.writeString(dto.getReviewerName());
+                out.writeDouble(dto.getRating());
+                out.writeString(dto.getReview());
+            },
+            (in, version) -> {
+                ProductReviewDTO dto = new ProductReviewDTO();
+                readBase(in, dto);
+                dto.setProductId(in.readLong());
+                dto.setReviewerName(in.readString());
+                dto.setRating(in.readDouble());
+                dto.setReview(in.readString());
+                return dto;
+            });
+
+    public static final BinaryCodec<CustomUserDetails> USER_DETAILS = BinaryCodec.of(CustomUserDetails.class, 2,
+            (out, user) -> {
+                out.writeLong(user.getId());
+                out.writeString(user.getEmail());
+                out.writeString(user.getName());
+                out.writeString(user.getPhone());
+                out.writeString(user.getCountryCode());
+                out.writeString(user.getDialCode());
+                out.writeVarInt(user.getAuthorities().size());
+                for (GrantedAuthority authority : user.getAuthorities()) {
+                    out.writeString(authority.getAuthority());
+                }
+                out.writeBoolean(user.isEnabled());
+                out.writeVarInt(user.getTokenVersion());
+            },
+            (in, version) -> {
+                Long id = in.readLong();
+                String email = in.readString();
+                String name = in.readString();
+                if (version < 2) {
+                    // Version 1 enthielt noch den Passwort-Hash; er wird verworfen
+                    in.readString();
+                }
+                String phone = in.readString();
+                String countryCode = in.readString();
+                String dialCode = in.readString();
+                int authorityCount = in.readVarInt();
+                List<SimpleGrantedAuthority> authorities = new ArrayList<>(authorityCount);
+                for (int i = 0; i < authorityCount; i++) {
+                    authorities.add(new SimpleGrantedAuthority(in.readString()));
+                }
+                boolean enabled = in.readBoolean();
+                int tokenVersion = in.readVarInt();
+                return new CustomUserDetails(id, email, name, null, phone, countryCode, dialCode,
+                        authorities, enabled, tokenVersion);
+            });
+
+    private DtoBinaryCodecs() {
+    }
+
+    /**
+     * Registriert alle DTO-Codecs mit ihren festen Typ-IDs.
+     */
+    public static BinaryCodecRegistry createRegistry() {
+        return new BinaryCodecRegistry()
+                .register(32, PRODUCT_INFO)
+                .register(33, CART_ITEM)
+                .register(34, CART)
+                .register(35, WISHLIST_ITEM)
+                .register(36, CUSTOMER_ADDRESS)
+                .register(37, ORDER_ITEM)
+                .register(38, ORDER)
+                .register(39, PRODUCT_REVIEW)
+                .register(40, USER_DETAILS)
+                .register(41, ORDER_PAGE);
+    }
+
+    private static void writeBase(BinaryOutput out, BaseDTO dto) {
+        out.writeLong(dto.getId());
+        out.writeDateTime(dto.getCreatedAt());
+        out.writeDateTime(dto.getUpdatedAt());
+    }
+
+    private static void readBase(BinaryInput in, BaseDTO dto) {
+        dto.setId(in.readLong());
+        dto.setCreatedAt(in.readDateTime());
+        dto.setUpdatedAt(in.readDateTime());
+    }
+}
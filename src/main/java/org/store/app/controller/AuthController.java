@@ -38,8 +38,7 @@ public class AuthController {
     private final PasswordResetTokenService passwordResetTokenService;
     private final CustomerService customerService;
     private final JwtTokenProvider jwtTokenProvider;
-    private final CartService cartService;
-    private final WishlistService wishlistService;
+    private final LoginMergeService loginMergeService;
     private final CookieProperties cookieProperties;
     private final UserDetailsServiceImpl userDetailsService;
     private final EmailVerificationTokenService emailVerificationTokenService;
@@ -77,8 +76,8 @@ public class AuthController {
 
 
         if (sessionId != null) {
-            cartService.mergeCartOnLogin(loginDto.getEmail(), sessionId);
-            wishlistService.mergeWishlistOnLogin(loginDto.getEmail(), sessionId);
+            // Merge läuft im Hintergrund; Warenkorb-/Wunschlisten-Anfragen der Session warten darauf
+            loginMergeService.scheduleMerge(loginDto.getEmail(), sessionId);
         }
         HttpHeaders headers = new HttpHeaders();
         headers.add("Set-Cookie", accessTokenCookie.toString());
@@ -152,7 +151,7 @@ public class AuthController {
                 updateProfileDTO.getDialCode(),
                 updateProfileDTO.getCountryCode()
         );
-        CustomUserDetails updatedUser = (CustomUserDetails) userDetailsService.loadUserByUsername(userDetails.getEmail());
+        CustomUserDetails updatedUser = userDetailsService.loadPrincipalByEmail(userDetails.getEmail());
 
         JwtPayload updatedPayload = new JwtPayload(
                 updatedUser.getId(),
@@ -165,8 +164,13 @@ public class AuthController {
                         .map(GrantedAuthority::getAuthority)
                         .toList()
         );
+        // Das Update erhöht die Token-Version; das alte Access-Token ist damit ungültig
+        String newAccessToken = authService.generateToken(userDetails.getEmail());
+        ResponseCookie accessTokenCookie = createCookie(cookieProperties.getAccessTokenName(), newAccessToken, getMaxAgeAccessToken());
         log.info("User [{}] profile updated successfully", userDetails.getEmail());
-        return ResponseEntity.ok(updatedPayload);
+        return ResponseEntity.ok()
+                .header("Set-Cookie", accessTokenCookie.toString())
+                .body(updatedPayload);
     }
 
     @Operation(summary = "Customer registration", description = "Register a new Customer account")
@@ -254,11 +258,12 @@ public class AuthController {
         if (token != null) {
             boolean valid = isRefreshToken ? jwtTokenProvider.validateRefreshToken(token) : jwtTokenProvider.validateToken(token);
             if (valid) {
-                long expirationTimeMillis = isRefreshToken
-                        ? jwtTokenProvider.getExpirationFromRefreshToken(token) - System.currentTimeMillis()
-                        : jwtTokenProvider.getExpirationFromToken(token) - System.currentTimeMillis();
-                log.info("Logging out {} token adding to blacklist: {}", isRefreshToken ? "refresh" : "access", token);
-                jwtTokenProvider.addTokenToBlacklist(token, expirationTimeMillis);
+                log.info("Logging out {} token, adding to blacklist", isRefreshToken ? "refresh" : "access");
+                if (isRefreshToken) {
+                    jwtTokenProvider.blacklistRefreshToken(token);
+                } else {
+                    jwtTokenProvider.blacklistAccessToken(token);
+                }
             } else {
                 log.warn("Invalid {} token received during logout", isRefreshToken ? "refresh" : "access");
             }
@@ -3,7 +3,6 @@ package org.store.app.controller;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.exception.StripeException;
 import com.stripe.model.Event;
-import com.stripe.model.checkout.Session;
 import com.stripe.net.Webhook;
 import io.swagger.v3.oas.annotations.Parameter;
 import lombok.RequiredArgsConstructor;
@@ -13,9 +12,14 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
-import org.store.app.common.StripeEventDispatcher;
 import org.store.app.security.userdetails.CustomUserDetails;
 import org.store.app.service.CheckoutService;
+import org.store.app.service.StripeWebhookService;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @RestController
@@ -24,7 +28,7 @@ import org.store.app.service.CheckoutService;
 public class CheckoutController {
 
     private final CheckoutService checkoutService;
-    private final StripeEventDispatcher stripeEventDispatcher;
+    private final StripeWebhookService stripeWebhookService;
 
     public static final String CURRENCY = "EUR";
 
@@ -32,24 +36,40 @@ public class CheckoutController {
     private String webhookSecret;
 
     @PostMapping("/create-session")
-    public ResponseEntity<?> createCheckoutSession(@Parameter(hidden = true) @AuthenticationPrincipal CustomUserDetails userDetails,
-                                                   @RequestParam Long orderId) {
+    public CompletableFuture<ResponseEntity<?>> createCheckoutSession(@Parameter(hidden = true) @AuthenticationPrincipal CustomUserDetails userDetails,
+                                                                      @RequestParam Long orderId) {
         if (orderId == null) {
-            return ResponseEntity.badRequest().body("Order ID is required");
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Order ID is required"));
         }
         try {
-            Session session = checkoutService.createCheckoutSession(orderId, CURRENCY, userDetails);
-            return ResponseEntity.ok(session.getUrl());
+            // Der Servlet-Thread wird freigegeben, während Stripe die Session anlegt
+            return checkoutService.createCheckoutSession(orderId, CURRENCY, userDetails)
+                    .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                    .exceptionally(this::checkoutSessionError);
         } catch (IllegalStateException | IllegalArgumentException e) {
             log.warn("Validation error while creating checkout session: {}", e.getMessage());
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (StripeException e) {
-            log.error("StripeException while creating checkout session", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Stripe error: " + e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            log.warn("Checkout session pool exhausted: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Checkout is busy, please retry"));
         } catch (Exception e) {
             log.error("Unexpected error while creating checkout session", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Unexpected error occurred");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Unexpected error occurred"));
+        }
+    }
+
+    private ResponseEntity<?> checkoutSessionError(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            log.warn("Stripe did not create checkout session in time");
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body("Stripe did not respond in time");
+        }
+        if (cause instanceof StripeException) {
+            log.error("StripeException while creating checkout session", cause);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Stripe error: " + cause.getMessage());
         }
+        log.error("Unexpected error while creating checkout session", cause);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Unexpected error occurred");
     }
 
 
@@ -57,11 +77,13 @@ public class CheckoutController {
     public ResponseEntity<String> handleStripeWebhook(@RequestBody String payload, @RequestHeader("Stripe-Signature") String sigHeader) {
         try {
             Event event = Webhook.constructEvent(payload, sigHeader, webhookSecret);
-            log.info("Received webhook: {}", event.getType());
-
-            stripeEventDispatcher.dispatch(event);
+            log.info("Received webhook: {} ({})", event.getType(), event.getId());
 
-            return ResponseEntity.ok("Webhook handled: " + event.getType());
+            // Antwort direkt nach dem Speichern; verarbeitet wird asynchron
+            if (!stripeWebhookService.accept(event, payload)) {
+                return ResponseEntity.ok("Webhook already received: " + event.getType());
+            }
+            return ResponseEntity.ok("Webhook accepted: " + event.getType());
 
         } catch (SignatureVerificationException e) {
             log.warn("Invalid Stripe signature", e);
@@ -0,0 +1,27 @@
+package org.store.app.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.store.app.service.LoginMergeService;
+
+import static org.store.app.util.RequestUtils.resolveSessionId;
+
+/**
+ * Lässt Warenkorb-, Wunschlisten-, Bestell- und Checkout-Anfragen auf einen noch laufenden Login-Merge ihrer
+ * Session warten, damit sie den zusammengeführten Stand sehen und nicht parallel zum Merge schreiben.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoginMergeInterceptor implements HandlerInterceptor {
+
+    private final LoginMergeService loginMergeService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        loginMergeService.awaitMerge(resolveSessionId(request));
+        return true;
+    }
+}
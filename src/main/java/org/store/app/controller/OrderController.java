@@ -10,15 +10,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
-import org.store.app.common.ValueWrapper;
-import org.store.app.dto.OrderDTO;
+import org.store.app.dto.OrderPageDTO;
 import org.store.app.dto.OrderResponseCreatedDTO;
 import org.store.app.enums.OrderStatus;
 import org.store.app.security.userdetails.CustomUserDetails;
 import org.store.app.service.OrderService;
 
-import java.util.List;
-
 @Slf4j
 @RestController
 @RequestMapping("/store/api/orders")
@@ -51,10 +48,14 @@ public class OrderController {
         }
     }
 
-    @Operation(summary = "Get all orders for the current customer filtered by status")
+    @Operation(summary = "Get orders for the current customer filtered by status",
+            description = "Returns one page of orders, newest first. Pass the returned nextCursor to fetch the next page.")
     @GetMapping
-    public ResponseEntity<List<OrderDTO>> getAllOrdersForCurrentCustomer(@Parameter(hidden = true) @AuthenticationPrincipal CustomUserDetails userDetails, @Parameter(description = "Filter orders by status") @RequestParam(defaultValue = "PROCESSING") OrderStatus status) {
-        ValueWrapper<List<OrderDTO>> orderDTOS = orderService.getOrdersByCustomerAndStatus(userDetails.getId(), status);
-        return ResponseEntity.ok(orderDTOS.getValue());
+    public ResponseEntity<OrderPageDTO> getAllOrdersForCurrentCustomer(@Parameter(hidden = true) @AuthenticationPrincipal CustomUserDetails userDetails,
+                                                                       @Parameter(description = "Filter orders by status") @RequestParam(defaultValue = "PROCESSING") OrderStatus status,
+                                                                       @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+                                                                       @Parameter(description = "Page size (1-100)") @RequestParam(defaultValue = "20") int size) {
+        OrderPageDTO page = orderService.getOrdersByCustomerAndStatus(userDetails.getId(), status, cursor, size);
+        return ResponseEntity.ok(page);
     }
 }
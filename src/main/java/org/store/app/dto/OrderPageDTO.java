@@ -0,0 +1,22 @@
+package org.store.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderPageDTO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private List<OrderDTO> orders = new ArrayList<>();
+    // null, wenn es keine weiteren Bestellungen gibt
+    private String nextCursor;
+}
@@ -0,0 +1,8 @@
+package org.store.app.enums;
+
+public enum EmailStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
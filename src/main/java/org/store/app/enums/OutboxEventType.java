@@ -0,0 +1,6 @@
+package org.store.app.enums;
+
+public enum OutboxEventType {
+    ORDER_CONFIRMATION_EMAIL,
+    CART_CACHE_EVICTION
+}
@@ -0,0 +1,7 @@
+package org.store.app.enums;
+
+public enum ReservationStatus {
+    RESERVED,
+    COMMITTED,
+    RELEASED
+}
@@ -5,12 +5,13 @@ import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 import org.store.app.dto.CartDTO;
 import org.store.app.dto.CartItemDTO;
-import org.store.app.dto.ProductInfoDTO;
 import org.store.app.model.Cart;
-import org.store.app.projection.CartItemProductProjection;
+import org.store.app.model.CartItem;
+import org.store.app.service.ProductCatalogSnapshot.ProductSummary;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public interface CartMapper {
@@ -19,14 +20,19 @@ public interface CartMapper {
     @Mapping(target = "cartId", source = "cart.id")
     CartDTO toDto(Cart cart);
 
-    default CartDTO toDtoFromProjections(Long cartId, List<CartItemProductProjection> cartItemProductProjections) {
+    /**
+     * Positionen ohne Produktdaten (z.B. gelöschte Produkte) werden ausgelassen.
+     */
+    default CartDTO toDtoFromItems(Long cartId, List<CartItem> items, Map<Long, ProductSummary> products) {
         CartDTO cartDTO = new CartDTO();
         cartDTO.setCartId(cartId);
-        List<CartItemDTO> itemDTOS = new ArrayList<>();
-        for (CartItemProductProjection p : cartItemProductProjections) {
-            ProductInfoDTO productInfoDTO = new ProductInfoDTO(p.getName(), p.getDescription(), p.getImageUrl(), p.getTotalStock());
-            CartItemDTO itemDTO = new CartItemDTO(p.getProductId(), p.getQuantity(), p.getUnitPrice(), productInfoDTO);
-            itemDTOS.add(itemDTO);
+        List<CartItemDTO> itemDTOS = new ArrayList<>(items.size());
+        for (CartItem item : items) {
+            ProductSummary product = products.get(item.getProductId());
+            if (product == null) {
+                continue;
+            }
+            itemDTOS.add(new CartItemDTO(item.getProductId(), item.getQuantity(), item.getUnitPrice(), product.toProductInfo()));
         }
         cartDTO.setItemDTOS(itemDTOS);
         return cartDTO;
@@ -9,12 +9,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "cart")
+@Table(name = "cart",
+        indexes = @Index(name = "idx_cart_session_status", columnList = "session_id, status"))
 @EqualsAndHashCode(callSuper = true)
 @Data
 public class Cart extends BaseEntity {
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", foreignKey = @ForeignKey(name = "FK_cart_customer"))
     private Customer customer;
 
@@ -34,4 +34,8 @@ public class Customer extends BaseEntity {
 
     @Column(name = "email_verified", nullable = false)
     private boolean emailVerified = false;
+
+    // Wird bei Profil- oder Passwortänderung erhöht und macht ältere Access-Tokens ungültig
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion = 0;
 }
\ No newline at end of file
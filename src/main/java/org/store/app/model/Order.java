@@ -10,7 +10,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders",
+        indexes = @Index(name = "idx_orders_customer_status_created", columnList = "customer_id, status, created_at, id"))
 @EqualsAndHashCode(callSuper = true)
 @Data
 public class Order extends BaseEntity {
@@ -7,6 +7,7 @@ import lombok.EqualsAndHashCode;
 import org.store.app.enums.PaymentStatus;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "payments")
@@ -25,4 +26,13 @@ public class Payment extends BaseEntity {
     private BigDecimal amount;
     private String transactionId;
     private String responseMessage;
+
+    @Column(name = "checkout_session_id")
+    private String checkoutSessionId;
+
+    @Column(name = "checkout_session_url", length = 1000)
+    private String checkoutSessionUrl;
+
+    @Column(name = "checkout_session_expires_at")
+    private LocalDateTime checkoutSessionExpiresAt;
 }
@@ -0,0 +1,30 @@
+package org.store.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.store.app.enums.ReservationStatus;
+
+@Entity
+@Table(name = "stock_reservations",
+        indexes = {
+                @Index(name = "idx_reservation_product_status", columnList = "product_id, status"),
+                @Index(name = "idx_reservation_order", columnList = "order_id")
+        })
+@EqualsAndHashCode(callSuper = true)
+@Data
+public class StockReservation extends BaseEntity {
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReservationStatus status = ReservationStatus.RESERVED;
+}
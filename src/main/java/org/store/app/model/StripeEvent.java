@@ -0,0 +1,49 @@
+package org.store.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.store.app.enums.StripeEventStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Eingegangenes Stripe-Webhook-Event. Die Event-ID ist eindeutig, jede Zustellung wird also nur einmal gespeichert
+ * und verarbeitet.
+ */
+@Entity
+@Table(name = "stripe_events",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stripe_events_event_id", columnNames = "event_id"),
+        indexes = @Index(name = "idx_stripe_events_status_next", columnList = "status, next_attempt_at"))
+@EqualsAndHashCode(callSuper = true)
+@Data
+public class StripeEvent extends BaseEntity {
+
+    @Column(name = "event_id", nullable = false)
+    private String eventId;
+
+    @Column(nullable = false, length = 100)
+    private String type;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StripeEventStatus status = StripeEventStatus.RECEIVED;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
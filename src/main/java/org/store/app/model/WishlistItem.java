@@ -6,7 +6,7 @@ import lombok.EqualsAndHashCode;
 
 @Entity
 @Table(name = "wishlist_items",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"wishlist_id", "product_id"}))
+        uniqueConstraints = @UniqueConstraint(name = "unique_wishlist_product", columnNames = {"wishlist_id", "product_id"}))
 @EqualsAndHashCode(callSuper = true)
 @Data
 public class WishlistItem extends BaseEntity {
@@ -1,8 +0,0 @@
-package org.store.app.projection;
-
-public interface ProductInfoProjection {
-    Long getProductId();
-    String getName();
-    String getDescription();
-    String getImageUrl();
-}
@@ -1,13 +1,14 @@
 package org.store.app.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import org.store.app.model.Cart;
 import org.store.app.model.CartItem;
-import org.store.app.projection.CartItemProductProjection;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,38 +16,45 @@ import java.util.Optional;
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
 
 
-    @Query(value = """
-            SELECT 
-                ci.product_id AS productId,
-                ci.quantity AS quantity,
-                ci.unit_price AS unitPrice,
-                p.name AS name,
-                p.description AS description,
-                (
-                    SELECT i.image_url 
-                    FROM images i 
-                    WHERE i.product_id = p.id 
-                    ORDER BY i.id ASC 
-                    LIMIT 1
-                ) AS imageUrl,
-                (
-                SELECT COALESCE(SUM(s.quantity), 0)
-                FROM stock s
-                WHERE s.product_id = p.id
-                ) AS totalStock
-            FROM cart_items ci
-            JOIN products p ON p.id = ci.product_id
-            WHERE ci.cart_id = :cartId
-            """, nativeQuery = true)
-    List<CartItemProductProjection> findCartItemsWithProductInfo(@Param("cartId") Long cartId);
+    List<CartItem> findByCartId(Long cartId);
 
-    Optional<CartItem> findByCartIdAndProductId(Long id, Long productId);
+    List<CartItem> findByCartIdIn(Collection<Long> cartIds);
 
+    Optional<CartItem> findByCartIdAndProductId(Long id, Long productId);
 
-    List<CartItem> findByCart(Cart sessionCart);
 
+    /**
+     * Legt die Position an oder erhöht deren Menge (Unique-Key 'unique_cart_product').
+     * Der Preis einer bestehenden Position bleibt unverändert.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO cart_items (cart_id, product_id, quantity, unit_price, created_at, updated_at)
+            VALUES (:cartId, :productId, :quantity, :unitPrice, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            ON DUPLICATE KEY UPDATE quantity = quantity + :quantity, updated_at = CURRENT_TIMESTAMP
+            """, nativeQuery = true)
+    int upsertQuantity(@Param("cartId") Long cartId,
+                       @Param("productId") Long productId,
+                       @Param("quantity") int quantity,
+                       @Param("unitPrice") BigDecimal unitPrice);
 
     @Query("SELECT ci.quantity FROM CartItem ci WHERE ci.cart.id = :cartId AND ci.productId = :productId")
     Optional<Integer> findQuantityByCartIdAndProductId(@Param("cartId") Long cartId, @Param("productId") Long productId);
-}
 
+    /**
+     * Verschiebt die Positionen der angegebenen Produkte in einen anderen Warenkorb.
+     * Ausstehende Mengenänderungen werden vorher geschrieben.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            UPDATE cart_items SET cart_id = :targetCartId, updated_at = CURRENT_TIMESTAMP
+            WHERE cart_id = :sourceCartId AND product_id IN (:productIds)
+            """, nativeQuery = true)
+    int moveItems(@Param("sourceCartId") Long sourceCartId,
+                  @Param("targetCartId") Long targetCartId,
+                  @Param("productIds") Collection<Long> productIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id = :cartId")
+    int deleteByCartIdInBulk(@Param("cartId") Long cartId);
+}
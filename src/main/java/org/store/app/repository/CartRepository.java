@@ -3,22 +3,45 @@ package org.store.app.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.store.app.enums.CartStatus;
 import org.store.app.model.Cart;
-import org.store.app.model.Customer;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
 
-    Optional<Cart> findByCustomerAndStatus(Customer customer, CartStatus cartStatus);
+    /**
+     * Warenkörbe mit Status {@code status}, die zur E-Mail des Kunden gehören, oder Gast-Warenkörbe der Session,
+     * in einer Abfrage. Der Warenkorb des Kunden steht vorne. Über die Session wird nur ein Warenkorb ohne Kunden
+     * gefunden: beim Zusammenführen übernimmt der Kunden-Warenkorb die Session-ID, er darf darüber nicht für
+     * andere Anfragen auffindbar sein. Der Kunde wird nicht mitgeladen; ein gefundener Warenkorb mit Kunde ist
+     * immer der Warenkorb zu {@code email}.
+     */
+    @Query("""
+            SELECT c FROM Cart c
+            LEFT JOIN c.customer cu
+            WHERE c.status = :status
+              AND (cu.email = :email OR (c.sessionId = :sessionId AND c.customer IS NULL))
+            ORDER BY CASE WHEN cu.email = :email THEN 0 ELSE 1 END
+            """)
+    List<Cart> findByEmailOrSessionIdAndStatus(@Param("email") String email,
+                                               @Param("sessionId") String sessionId,
+                                               @Param("status") CartStatus status);
 
-    Optional<Cart> findBySessionIdAndStatus(String sessionId, CartStatus status);
+    default Optional<Cart> findActiveCart(String email, String sessionId) {
+        return findByEmailOrSessionIdAndStatus(email, sessionId, CartStatus.ACTIVE).stream().findFirst();
+    }
 
     @Modifying
     @Query("DELETE FROM Cart c WHERE c.customer IS NULL AND c.createdAt < :cutoffDate")
     int deleteCartsWithoutCustomerBefore(LocalDateTime cutoffDate);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Cart c WHERE c.id = :id")
+    int deleteByIdInBulk(@Param("id") Long id);
 }
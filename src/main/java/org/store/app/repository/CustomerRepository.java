@@ -1,6 +1,8 @@
 package org.store.app.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.store.app.model.Customer;
 
@@ -11,4 +13,7 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT c.tokenVersion FROM Customer c WHERE c.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
 }
@@ -1,36 +1,90 @@
 package org.store.app.repository;
 
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.store.app.enums.OrderStatus;
+import org.store.app.enums.PaymentStatus;
 import org.store.app.model.Order;
-import org.store.app.projection.ProductInfoProjection;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-    List<Order> findByCustomerIdAndStatus(Long customerId, OrderStatus status);
-
-    @Query(value = """
-            SELECT 
-                p.id as productId,
-                p.name,
-                p.description,
-                (
-                    SELECT i.image_url 
-                    FROM images i 
-                    WHERE i.product_id = p.id
-                    LIMIT 1
-                ) AS image_url
-            FROM products p
-            WHERE p.id IN (:productIds)
-            """, nativeQuery = true)
-    List<ProductInfoProjection> findProductInfosByIds(@Param("productIds") Set<Long> productIds);
+    /**
+     * Bestellung mit Zeilensperre ({@code SELECT ... FOR UPDATE}); serialisiert parallele Checkout-Aufrufe
+     * derselben Bestellung bis zum Commit.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * IDs der ersten Seite, neueste Bestellung zuerst. Über {@code pageable} wird nur das Limit gesetzt.
+     */
+    @Query("""
+            SELECT o.id FROM Order o
+            WHERE o.customer.id = :customerId AND o.status = :status
+            ORDER BY o.createdAt DESC, o.id DESC
+            """)
+    List<Long> findPageIds(@Param("customerId") Long customerId,
+                           @Param("status") OrderStatus status,
+                           Pageable pageable);
+
+    /**
+     * IDs der Seite nach dem Cursor (Keyset auf {@code createdAt, id}), nutzt den Index 'idx_orders_customer_status_created'.
+     */
+    @Query("""
+            SELECT o.id FROM Order o
+            WHERE o.customer.id = :customerId AND o.status = :status
+              AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id))
+            ORDER BY o.createdAt DESC, o.id DESC
+            """)
+    List<Long> findPageIdsAfter(@Param("customerId") Long customerId,
+                                @Param("status") OrderStatus status,
+                                @Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id,
+                                Pageable pageable);
+
+    /**
+     * Bestellungen mit Positionen sowie Liefer- und Rechnungsadresse in einer Abfrage,
+     * damit das Mapping keine Lazy-Loads pro Bestellung auslöst.
+     */
+    @Query("""
+            SELECT DISTINCT o FROM Order o
+            LEFT JOIN FETCH o.items
+            LEFT JOIN FETCH o.shippingAddress
+            LEFT JOIN FETCH o.billingAddress
+            WHERE o.id IN :ids
+            ORDER BY o.createdAt DESC, o.id DESC
+            """)
+    List<Order> findWithItemsAndAddressesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Offene Bestellungen, die vor {@code createdBefore} angelegt wurden und keine noch gültige
+     * Checkout-Session haben. Deren Reservierungen würden sonst den freien Bestand dauerhaft verringern.
+     */
+    @Query("""
+            SELECT o FROM Order o
+            WHERE o.status = :pending AND o.createdAt < :createdBefore
+              AND NOT EXISTS (
+                  SELECT p.id FROM Payment p
+                  WHERE p.order = o AND p.status = :paymentPending AND p.checkoutSessionExpiresAt > :now)
+            ORDER BY o.id
+            """)
+    List<Order> findAbandonedPendingOrders(@Param("pending") OrderStatus pending,
+                                           @Param("paymentPending") PaymentStatus paymentPending,
+                                           @Param("createdBefore") LocalDateTime createdBefore,
+                                           @Param("now") LocalDateTime now,
+                                           Pageable pageable);
 
     @Query("SELECT COUNT(oi) > 0 FROM OrderItem oi " +
            "WHERE oi.order.customer.id = :customerId " +
@@ -0,0 +1,77 @@
+package org.store.app.repository;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.store.app.common.retry.ClaimableRepository;
+import org.store.app.enums.EmailStatus;
+import org.store.app.model.OutboundEmail;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long>, ClaimableRepository<OutboundEmail> {
+
+    @Query("""
+            SELECT e.id FROM OutboundEmail e
+            WHERE e.status = :status AND e.nextAttemptAt <= :now
+            ORDER BY e.nextAttemptAt, e.id
+            """)
+    List<Long> findIdsDue(@Param("status") EmailStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("""
+            UPDATE OutboundEmail e
+            SET e.status = :sending, e.claimToken = :claimToken, e.claimedAt = :now
+            WHERE e.id IN :ids AND e.status = :pending
+            """)
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("claimToken") String claimToken,
+              @Param("now") LocalDateTime now,
+              @Param("pending") EmailStatus pending,
+              @Param("sending") EmailStatus sending);
+
+    @Override
+    List<OutboundEmail> findByClaimToken(String claimToken);
+
+    @Modifying
+    @Query("""
+            UPDATE OutboundEmail e
+            SET e.status = :sent, e.sentAt = :now, e.claimToken = NULL
+            WHERE e.id IN :ids
+            """)
+    int markSent(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now, @Param("sent") EmailStatus sent);
+
+    @Modifying
+    @Query("""
+            UPDATE OutboundEmail e
+            SET e.status = :pending, e.claimToken = NULL
+            WHERE e.status = :sending AND e.claimedAt < :cutoff
+            """)
+    int releaseStaleClaims(@Param("cutoff") LocalDateTime cutoff,
+                           @Param("pending") EmailStatus pending,
+                           @Param("sending") EmailStatus sending);
+
+    long countByStatus(EmailStatus status);
+
+    @Override
+    default int releaseStaleClaims(LocalDateTime cutoff) {
+        return releaseStaleClaims(cutoff, EmailStatus.PENDING, EmailStatus.SENDING);
+    }
+
+    @Override
+    default List<Long> findIdsDue(LocalDateTime now, int limit) {
+        return findIdsDue(EmailStatus.PENDING, now, PageRequest.of(0, limit));
+    }
+
+    @Override
+    default int claim(Collection<Long> ids, String claimToken, LocalDateTime now) {
+        return claim(ids, claimToken, now, EmailStatus.PENDING, EmailStatus.SENDING);
+    }
+}
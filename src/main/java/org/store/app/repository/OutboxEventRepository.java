@@ -0,0 +1,82 @@
+package org.store.app.repository;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.store.app.common.retry.ClaimableRepository;
+import org.store.app.enums.OutboxStatus;
+import org.store.app.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, ClaimableRepository<OutboxEvent> {
+
+    @Query("""
+            SELECT e.id FROM OutboxEvent e
+            WHERE e.status = :status AND e.nextAttemptAt <= :now
+            ORDER BY e.nextAttemptAt, e.id
+            """)
+    List<Long> findIdsDue(@Param("status") OutboxStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("""
+            UPDATE OutboxEvent e
+            SET e.status = :processing, e.claimToken = :claimToken, e.claimedAt = :now
+            WHERE e.id IN :ids AND e.status = :pending
+            """)
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("claimToken") String claimToken,
+              @Param("now") LocalDateTime now,
+              @Param("pending") OutboxStatus pending,
+              @Param("processing") OutboxStatus processing);
+
+    @Override
+    @Query("SELECT e FROM OutboxEvent e WHERE e.claimToken = :claimToken ORDER BY e.id")
+    List<OutboxEvent> findByClaimToken(@Param("claimToken") String claimToken);
+
+    @Modifying
+    @Query("""
+            UPDATE OutboxEvent e
+            SET e.status = :done, e.processedAt = :now, e.claimToken = NULL
+            WHERE e.id IN :ids
+            """)
+    int markDone(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now, @Param("done") OutboxStatus done);
+
+    @Modifying
+    @Query("""
+            UPDATE OutboxEvent e
+            SET e.status = :pending, e.claimToken = NULL
+            WHERE e.status = :processing AND e.claimedAt < :cutoff
+            """)
+    int releaseStaleClaims(@Param("cutoff") LocalDateTime cutoff,
+                           @Param("pending") OutboxStatus pending,
+                           @Param("processing") OutboxStatus processing);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = :done AND e.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("done") OutboxStatus done);
+
+    long countByStatus(OutboxStatus status);
+
+    @Override
+    default int releaseStaleClaims(LocalDateTime cutoff) {
+        return releaseStaleClaims(cutoff, OutboxStatus.PENDING, OutboxStatus.PROCESSING);
+    }
+
+    @Override
+    default List<Long> findIdsDue(LocalDateTime now, int limit) {
+        return findIdsDue(OutboxStatus.PENDING, now, PageRequest.of(0, limit));
+    }
+
+    @Override
+    default int claim(Collection<Long> ids, String claimToken, LocalDateTime now) {
+        return claim(ids, claimToken, now, OutboxStatus.PENDING, OutboxStatus.PROCESSING);
+    }
+}
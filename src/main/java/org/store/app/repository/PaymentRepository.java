@@ -1,10 +1,20 @@
 package org.store.app.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.store.app.enums.PaymentStatus;
 import org.store.app.model.Payment;
 
+import java.util.List;
+
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
+    @Query("SELECT p FROM Payment p WHERE p.order.id = :orderId AND p.status = :status ORDER BY p.id DESC")
+    List<Payment> findLatestByOrderIdAndStatus(@Param("orderId") Long orderId,
+                                               @Param("status") PaymentStatus status,
+                                               Pageable pageable);
 }
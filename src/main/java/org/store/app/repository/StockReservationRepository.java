@@ -0,0 +1,19 @@
+package org.store.app.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.store.app.enums.ReservationStatus;
+import org.store.app.model.StockReservation;
+
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    List<StockReservation> findByOrderIdAndStatus(Long orderId, ReservationStatus status);
+
+    @Query("SELECT COALESCE(SUM(r.quantity), 0) FROM StockReservation r WHERE r.productId = :productId AND r.status = :status")
+    long sumQuantityByProductIdAndStatus(@Param("productId") Long productId, @Param("status") ReservationStatus status);
+}
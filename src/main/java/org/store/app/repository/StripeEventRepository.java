@@ -0,0 +1,63 @@
+package org.store.app.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.store.app.enums.StripeEventStatus;
+import org.store.app.model.StripeEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StripeEventRepository extends JpaRepository<StripeEvent, Long> {
+
+    /**
+     * Speichert das Event, sofern die Event-ID noch nicht vorhanden ist.
+     *
+     * @return 1 für ein neues Event, 0 für eine erneute Zustellung
+     */
+    @Modifying
+    @Query(value = """
+            INSERT IGNORE INTO stripe_events
+                (event_id, type, order_id, payload, status, attempts, next_attempt_at, created_at, updated_at)
+            VALUES (:eventId, :type, :orderId, :payload, 'RECEIVED', 0, :now, :now, :now)
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("eventId") String eventId,
+                       @Param("type") String type,
+                       @Param("orderId") Long orderId,
+                       @Param("payload") String payload,
+                       @Param("now") LocalDateTime now);
+
+    Optional<StripeEvent> findByEventId(String eventId);
+
+    /**
+     * Setzt ein fälliges Event auf PROCESSED. Läuft in derselben Transaktion wie die Handler: Die Zeilensperre
+     * hält einen zweiten Worker bis zum Commit auf, nach einem Rollback bleibt das Event RECEIVED.
+     *
+     * @return 0, wenn das Event bereits verarbeitet wurde oder noch nicht fällig ist
+     */
+    @Modifying
+    @Query("""
+            UPDATE StripeEvent e
+            SET e.status = :processed, e.processedAt = :now
+            WHERE e.eventId = :eventId AND e.status = :received AND e.nextAttemptAt <= :now
+            """)
+    int markProcessed(@Param("eventId") String eventId,
+                      @Param("now") LocalDateTime now,
+                      @Param("received") StripeEventStatus received,
+                      @Param("processed") StripeEventStatus processed);
+
+    @Query("""
+            SELECT e FROM StripeEvent e
+            WHERE e.status = :received AND e.nextAttemptAt <= :now
+            ORDER BY e.id
+            """)
+    List<StripeEvent> findDue(@Param("received") StripeEventStatus received,
+                              @Param("now") LocalDateTime now,
+                              Pageable pageable);
+}
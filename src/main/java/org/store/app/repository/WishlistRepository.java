@@ -3,6 +3,7 @@ package org.store.app.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.store.app.enums.WishlistStatus;
 import org.store.app.model.Customer;
@@ -20,4 +21,8 @@ public interface WishlistRepository extends JpaRepository<Wishlist, Long> {
     @Modifying
     @Query("DELETE FROM Wishlist c WHERE c.customer IS NULL AND c.createdAt < :cutoffDate")
     int deleteWishlistsWithoutCustomerBefore(LocalDateTime cutoffDate);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Wishlist w WHERE w.id = :id")
+    int deleteByIdInBulk(@Param("id") Long id);
 }
@@ -0,0 +1,27 @@
+package org.store.app.scheduling.cleanup;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.store.app.enums.OutboxStatus;
+import org.store.app.repository.OutboxEventRepository;
+
+import java.time.LocalDateTime;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxCleanupJob {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    @Scheduled(cron = "0 30 3 * * *")
+    @Transactional
+    public void run() {
+        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(7);
+        int deletedCount = outboxEventRepository.deleteProcessedBefore(cutoffDate, OutboxStatus.DONE);
+        log.info("Deleted {} processed outbox events older than 7 days", deletedCount);
+    }
+}
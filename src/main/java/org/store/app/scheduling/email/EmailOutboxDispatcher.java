@@ -0,0 +1,207 @@
+package org.store.app.scheduling.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.store.app.common.retry.BatchClaims;
+import org.store.app.common.retry.RetryPolicy;
+import org.store.app.enums.EmailStatus;
+import org.store.app.model.OutboundEmail;
+import org.store.app.repository.OutboundEmailRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versendet die E-Mails aus 'email_outbox'. Pro Lauf wird ein Block fälliger E-Mails per Claim-Token
+ * übernommen und auf die Worker verteilt; jeder Worker verschickt seinen Teil über eine einzige
+ * SMTP-Verbindung ({@link JavaMailSender#send(MimeMessage...)}). Fehlgeschlagene E-Mails werden mit
+ * exponentiellem Backoff erneut versucht und nach {@code max-attempts} Versuchen als FAILED markiert.
+ */
+@Slf4j
+@Component
+public class EmailOutboxDispatcher {
+
+    private final OutboundEmailRepository outboundEmailRepository;
+    private final JavaMailSender mailSender;
+    private final Executor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final RetryPolicy retryPolicy;
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    @Value("${spring.mail.username}")
+    private String mailUser;
+
+    @Value("${app.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.workers:2}")
+    private int workers;
+
+    @Value("${app.mail.outbox.claim-timeout:PT5M}")
+    private Duration claimTimeout;
+
+    public EmailOutboxDispatcher(OutboundEmailRepository outboundEmailRepository,
+                                 JavaMailSender mailSender,
+                                 @Qualifier("mailSenderExecutor") Executor executor,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.mail.outbox.max-attempts:5}") int maxAttempts,
+                                 @Value("${app.mail.outbox.initial-backoff:PT30S}") Duration initialBackoff,
+                                 @Value("${app.mail.outbox.max-backoff:PT30M}") Duration maxBackoff) {
+        this.outboundEmailRepository = outboundEmailRepository;
+        this.mailSender = mailSender;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retryPolicy = new RetryPolicy(maxAttempts, initialBackoff, maxBackoff);
+        Gauge.builder("mail.outbox.queue.depth", queueDepth, AtomicLong::get)
+                .description("Pending emails in email_outbox")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("mail.outbox.sent").register(meterRegistry);
+        this.retriedCounter = Counter.builder("mail.outbox.retried").register(meterRegistry);
+        this.failedCounter = Counter.builder("mail.outbox.failed").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval:PT2S}")
+    public void run() {
+        try {
+            int sent;
+            // Solange volle Blöcke anstehen, direkt weitermachen statt auf den nächsten Lauf zu warten
+            do {
+                sent = dispatchPending();
+            } while (sent == batchSize);
+        } catch (Exception e) {
+            log.warn("Email outbox dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Verschickt einen Block fälliger E-Mails und wartet, bis alle Worker fertig sind.
+     *
+     * @return Anzahl der in diesem Lauf übernommenen E-Mails
+     */
+    public int dispatchPending() {
+        List<OutboundEmail> claimed = BatchClaims.claimDue(transactionTemplate, outboundEmailRepository, claimTimeout, batchSize);
+        queueDepth.set(outboundEmailRepository.countByStatus(EmailStatus.PENDING));
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        int chunkSize = (claimed.size() + workers - 1) / workers;
+        List<CompletableFuture<Void>> futures = new ArrayList<>(workers);
+        for (int from = 0; from < claimed.size(); from += chunkSize) {
+            List<OutboundEmail> chunk = claimed.subList(from, Math.min(from + chunkSize, claimed.size()));
+            futures.add(CompletableFuture.runAsync(() -> sendChunk(chunk), executor));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        log.info("Dispatched {} emails from outbox", claimed.size());
+        return claimed.size();
+    }
+
+    private void sendChunk(List<OutboundEmail> emails) {
+        Map<MimeMessage, OutboundEmail> messages = new IdentityHashMap<>();
+        List<OutboundEmail> failed = new ArrayList<>();
+        Map<OutboundEmail, Exception> errors = new IdentityHashMap<>();
+        for (OutboundEmail email : emails) {
+            try {
+                messages.put(toMimeMessage(email), email);
+            } catch (MessagingException e) {
+                failed.add(email);
+                errors.put(email, e);
+            }
+        }
+
+        Map<Object, Exception> failedMessages = Collections.emptyMap();
+        if (!messages.isEmpty()) {
+            try {
+                mailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+            } catch (MailSendException e) {
+                failedMessages = e.getFailedMessages().isEmpty() ? allFailed(messages, e) : e.getFailedMessages();
+            } catch (MailException e) {
+                failedMessages = allFailed(messages, e);
+            }
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        for (Map.Entry<MimeMessage, OutboundEmail> entry : messages.entrySet()) {
+            Exception error = failedMessages.get(entry.getKey());
+            if (error == null) {
+                sentIds.add(entry.getValue().getId());
+            } else {
+                failed.add(entry.getValue());
+                errors.put(entry.getValue(), error);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                outboundEmailRepository.markSent(sentIds, LocalDateTime.now(), EmailStatus.SENT);
+            }
+            for (OutboundEmail email : failed) {
+                scheduleRetry(email, errors.get(email));
+            }
+        });
+        sentCounter.increment(sentIds.size());
+    }
+
+    private void scheduleRetry(OutboundEmail email, Exception error) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setClaimToken(null);
+        email.setLastError(RetryPolicy.errorMessage(error));
+        if (retryPolicy.isExhausted(attempts)) {
+            email.setStatus(EmailStatus.FAILED);
+            failedCounter.increment();
+            log.error("Giving up on email id={} to {} after {} attempts: {}", email.getId(), email.getRecipient(), attempts, error.getMessage());
+        } else {
+            // 30s, 1m, 2m, ... bis maxBackoff
+            email.setNextAttemptAt(retryPolicy.nextAttemptAt(attempts, LocalDateTime.now()));
+            email.setStatus(EmailStatus.PENDING);
+            retriedCounter.increment();
+            log.warn("Failed to send email id={} to {} (attempt {}), retrying at {}: {}",
+                    email.getId(), email.getRecipient(), attempts, email.getNextAttemptAt(), error.getMessage());
+        }
+        outboundEmailRepository.save(email);
+    }
+
+    private MimeMessage toMimeMessage(OutboundEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, email.isHtml(), StandardCharsets.UTF_8.name());
+        helper.setTo(email.getRecipient());
+        helper.setFrom(mailUser);
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), email.isHtml());
+        return message;
+    }
+
+    private static Map<Object, Exception> allFailed(Map<MimeMessage, OutboundEmail> messages, Exception error) {
+        Map<Object, Exception> result = new IdentityHashMap<>();
+        messages.keySet().forEach(message -> result.put(message, error));
+        return result;
+    }
+}
@@ -0,0 +1,50 @@
+package org.store.app.scheduling.inventory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.store.app.service.OrderService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Storniert offene Bestellungen, die nach Ablauf der Reservierungsdauer keine gültige Checkout-Session haben,
+ * damit ihre Reservierungen den freien Bestand nicht dauerhaft blockieren.
+ */
+@Component
+@Slf4j
+public class ReservationExpiryJob {
+
+    private final OrderService orderService;
+
+    @Value("${app.stock.reservation-ttl:PT30M}")
+    private Duration reservationTtl;
+
+    @Value("${app.stock.reservation-sweep-batch-size:100}")
+    private int batchSize;
+
+    public ReservationExpiryJob(OrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.reservation-sweep-interval:PT5M}",
+            initialDelayString = "${app.stock.reservation-sweep-interval:PT5M}")
+    public void run() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(reservationTtl);
+            int total = 0;
+            int cancelled;
+            do {
+                cancelled = orderService.cancelAbandonedOrders(cutoff, batchSize);
+                total += cancelled;
+            } while (cancelled == batchSize);
+            if (total > 0) {
+                log.info("Released reservations of {} abandoned orders", total);
+            }
+        } catch (Exception e) {
+            log.warn("Reservation expiry sweep failed: {}", e.getMessage());
+        }
+    }
+}
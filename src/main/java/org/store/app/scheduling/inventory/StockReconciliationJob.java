@@ -0,0 +1,26 @@
+package org.store.app.scheduling.inventory;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.store.app.service.InventoryQueryService;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockReconciliationJob {
+
+    private final InventoryQueryService inventoryQueryService;
+
+    @Scheduled(fixedDelayString = "${app.stock.reconcile-interval:PT5M}",
+            initialDelayString = "${app.stock.reconcile-interval:PT5M}")
+    public void run() {
+        try {
+            int count = inventoryQueryService.reconcileCachedStock();
+            log.info("Reconciled {} cached stock counters with the stock table", count);
+        } catch (Exception e) {
+            log.warn("Stock reconciliation failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.store.app.scheduling.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.store.app.common.retry.BatchClaims;
+import org.store.app.common.retry.RetryPolicy;
+import org.store.app.enums.OutboxStatus;
+import org.store.app.model.OutboxEvent;
+import org.store.app.repository.OutboxEventRepository;
+import org.store.app.service.CartService;
+import org.store.app.service.OrderService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Arbeitet 'outbox_events' ab (mindestens einmal). Jedes Event läuft in einer eigenen Transaktion;
+ * schlägt es fehl, wird es mit exponentiellem Backoff erneut versucht, ohne die übrigen Events
+ * des Blocks aufzuhalten. Die Verarbeitung muss daher idempotent sein.
+ */
+@Slf4j
+@Component
+public class OutboxEventDispatcher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OrderService orderService;
+    private final CartService cartService;
+    private final TransactionTemplate transactionTemplate;
+    private final RetryPolicy retryPolicy;
+    private final AtomicLong backlog = new AtomicLong();
+    private final Counter processedCounter;
+    private final Counter failedCounter;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.claim-timeout:PT5M}")
+    private Duration claimTimeout;
+
+    public OutboxEventDispatcher(OutboxEventRepository outboxEventRepository,
+                                 OrderService orderService,
+                                 CartService cartService,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+                                 @Value("${app.outbox.initial-backoff:PT5S}") Duration initialBackoff,
+                                 @Value("${app.outbox.max-backoff:PT30M}") Duration maxBackoff) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.orderService = orderService;
+        this.cartService = cartService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retryPolicy = new RetryPolicy(maxAttempts, initialBackoff, maxBackoff);
+        Gauge.builder("outbox.events.pending", backlog, AtomicLong::get)
+                .description("Pending events in outbox_events")
+                .register(meterRegistry);
+        this.processedCounter = Counter.builder("outbox.events.processed").register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.events.failed").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:PT1S}")
+    public void run() {
+        try {
+            int processed;
+            do {
+                processed = dispatchPending();
+            } while (processed == batchSize);
+        } catch (Exception e) {
+            log.warn("Outbox dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Übernimmt einen Block fälliger Events und verarbeitet ihn in Einfügereihenfolge.
+     *
+     * @return Anzahl der in diesem Lauf übernommenen Events
+     */
+    public int dispatchPending() {
+        List<OutboxEvent> claimed = BatchClaims.claimDue(transactionTemplate, outboxEventRepository, claimTimeout, batchSize);
+        backlog.set(outboxEventRepository.countByStatus(OutboxStatus.PENDING));
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> doneIds = new ArrayList<>();
+        for (OutboxEvent event : claimed) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> process(event));
+                doneIds.add(event.getId());
+            } catch (Exception e) {
+                scheduleRetry(event, e);
+            }
+        }
+        if (!doneIds.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxEventRepository.markDone(doneIds, LocalDateTime.now(), OutboxStatus.DONE));
+            processedCounter.increment(doneIds.size());
+        }
+        return claimed.size();
+    }
+
+    private void process(OutboxEvent event) {
+        switch (event.getType()) {
+            case ORDER_CONFIRMATION_EMAIL -> orderService.sendOrderConfirmationEmail(event.getAggregateId(), event.getPayload());
+            case CART_CACHE_EVICTION -> cartService.evictCartCache(event.getAggregateId(), event.getPayload());
+        }
+    }
+
+    private void scheduleRetry(OutboxEvent event, Exception error) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setClaimToken(null);
+        event.setLastError(RetryPolicy.errorMessage(error));
+        if (retryPolicy.isExhausted(attempts)) {
+            event.setStatus(OutboxStatus.FAILED);
+            failedCounter.increment();
+            log.error("Giving up on outbox event id={} type={} aggregate={} after {} attempts: {}",
+                    event.getId(), event.getType(), event.getAggregateId(), attempts, error.getMessage());
+        } else {
+            event.setNextAttemptAt(retryPolicy.nextAttemptAt(attempts, LocalDateTime.now()));
+            event.setStatus(OutboxStatus.PENDING);
+            log.warn("Outbox event id={} type={} failed (attempt {}), retrying at {}: {}",
+                    event.getId(), event.getType(), attempts, event.getNextAttemptAt(), error.getMessage());
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.save(event));
+    }
+}
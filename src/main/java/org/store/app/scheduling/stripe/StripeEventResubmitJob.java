@@ -0,0 +1,31 @@
+package org.store.app.scheduling.stripe;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.store.app.service.StripeWebhookService;
+
+/**
+ * Reiht Stripe-Events erneut ein, die fehlgeschlagen sind, wegen voller Queue nicht eingereiht wurden
+ * oder deren Knoten während der Verarbeitung ausgefallen ist.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StripeEventResubmitJob {
+
+    private final StripeWebhookService stripeWebhookService;
+
+    @Scheduled(fixedDelayString = "${app.stripe.events.resubmit-interval:PT30S}")
+    public void run() {
+        try {
+            int resubmitted = stripeWebhookService.resubmitPending();
+            if (resubmitted > 0) {
+                log.info("Resubmitted {} pending Stripe events", resubmitted);
+            }
+        } catch (Exception e) {
+            log.warn("Resubmitting Stripe events failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.store.app.security.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.store.app.common.concurrent.PartitionedExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Begrenzter Pool für das Zusammenführen nach dem Login. Ist die Queue voll, läuft der Merge
+     * im aufrufenden Thread, statt verloren zu gehen.
+     */
+    @Bean(name = "loginMergeExecutor")
+    public ThreadPoolTaskExecutor loginMergeExecutor(@Value("${app.login-merge.pool-size:4}") int poolSize,
+                                                     @Value("${app.login-merge.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("login-merge-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Worker für den Versand aus der E-Mail-Outbox. Jeder Worker hält während eines Blocks eine
+     * SMTP-Verbindung, die Poolgröße begrenzt also auch die gleichzeitigen Verbindungen zum Mailserver.
+     */
+    @Bean(name = "mailSenderExecutor")
+    public ThreadPoolTaskExecutor mailSenderExecutor(@Value("${app.mail.outbox.workers:2}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers);
+        executor.setThreadNamePrefix("mail-sender-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Verarbeitung der Stripe-Webhooks, partitioniert nach Bestellung: Events einer Bestellung laufen
+     * nacheinander, verschiedene Bestellungen parallel.
+     */
+    @Bean(name = "stripeEventExecutor", destroyMethod = "shutdown")
+    public PartitionedExecutor stripeEventExecutor(@Value("${app.stripe.events.partitions:4}") int partitions,
+                                                   @Value("${app.stripe.events.queue-capacity:1000}") int queueCapacity) {
+        return new PartitionedExecutor("stripe-events", partitions, queueCapacity);
+    }
+
+    /**
+     * Pool für asynchrone Stripe-Handler, die erst nach dem Commit der Event-Verarbeitung laufen.
+     */
+    @Bean(name = "stripeHandlerExecutor")
+    public ThreadPoolTaskExecutor stripeHandlerExecutor(@Value("${app.stripe.handlers.pool-size:2}") int poolSize,
+                                                        @Value("${app.stripe.handlers.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("stripe-handler-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Aufrufe bei Stripe zum Anlegen von Checkout-Sessions. Ist der Pool ausgelastet, wird abgelehnt
+     * (503) statt Servlet-Threads zu blockieren.
+     */
+    @Bean(name = "stripeCheckoutExecutor")
+    public ThreadPoolTaskExecutor stripeCheckoutExecutor(@Value("${app.stripe.checkout.pool-size:8}") int poolSize,
+                                                         @Value("${app.stripe.checkout.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("stripe-checkout-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
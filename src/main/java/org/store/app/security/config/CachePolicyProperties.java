@@ -0,0 +1,76 @@
+package org.store.app.security.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cache-Richtlinien pro Cache-Name, z.B.:
+ * <pre>
+ * app.cache.specs[cart].ttl=2m
+ * app.cache.specs[cart].max-entries=5000
+ * app.cache.specs[cart].serializer=json
+ * </pre>
+ * {@code ttl} gilt für Redis (L2), {@code max-entries} und {@code local-ttl} für den lokalen Cache (L1).
+ * Nicht konfigurierte Caches verwenden die Standardwerte.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.cache")
+public class CachePolicyProperties {
+
+    private Duration defaultTtl = Duration.ofMinutes(10);
+    private Serializer defaultSerializer = Serializer.JSON;
+    /**
+     * Binärwerte ab dieser Größe (Bytes) werden komprimiert; 0 deaktiviert die Kompression.
+     */
+    private int compressionThreshold = 1024;
+    private Local local = new Local();
+    private Map<String, Spec> specs = new HashMap<>();
+
+    @Data
+    public static class Local {
+        private long maxEntries = 10_000;
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Spec {
+        private Duration ttl;
+        private Long maxEntries;
+        private Duration localTtl;
+        private Serializer serializer;
+    }
+
+    public enum Serializer {
+        JSON,
+        BINARY
+    }
+
+    public Duration ttlFor(String cacheName) {
+        Spec spec = specs.get(cacheName);
+        return spec != null && spec.getTtl() != null ? spec.getTtl() : defaultTtl;
+    }
+
+    public long maxEntriesFor(String cacheName) {
+        Spec spec = specs.get(cacheName);
+        return spec != null && spec.getMaxEntries() != null ? spec.getMaxEntries() : local.getMaxEntries();
+    }
+
+    public Duration localTtlFor(String cacheName) {
+        Spec spec = specs.get(cacheName);
+        Duration localTtl = spec != null && spec.getLocalTtl() != null ? spec.getLocalTtl() : local.getTtl();
+        // L1 darf nie länger leben als der Redis-Eintrag
+        Duration ttl = ttlFor(cacheName);
+        return localTtl.compareTo(ttl) > 0 ? ttl : localTtl;
+    }
+
+    public Serializer serializerFor(String cacheName) {
+        Spec spec = specs.get(cacheName);
+        return spec != null && spec.getSerializer() != null ? spec.getSerializer() : defaultSerializer;
+    }
+}
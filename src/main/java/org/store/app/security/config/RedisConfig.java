@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,27 +14,78 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.store.app.common.cache.TwoLevelCacheManager;
+import org.store.app.common.serialization.BinaryRedisSerializer;
+import org.store.app.common.serialization.DtoBinaryCodecs;
+import org.store.app.security.jwt.TokenBlacklist;
 
-import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 @Profile("!test")
 public class RedisConfig {
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory,
-                                          @Qualifier("redisObjectMapper") ObjectMapper objectMapper) {
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(objectMapper);
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             StringRedisTemplate stringRedisTemplate,
+                                             @Qualifier("redisObjectMapper") ObjectMapper objectMapper,
+                                             CachePolicyProperties cachePolicies,
+                                             MeterRegistry meterRegistry) {
+        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(objectMapper);
+        // Binärformat liest auch bestehende JSON-Einträge, daher ist ein Wechsel ohne Flush möglich
+        BinaryRedisSerializer binarySerializer = new BinaryRedisSerializer(
+                DtoBinaryCodecs.createRegistry(), jsonSerializer, cachePolicies.getCompressionThreshold());
 
-        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer))
-                .entryTtl(Duration.ofMinutes(10));
+        RedisCacheConfiguration defaultConfig = cacheConfiguration(
+                serializerFor(cachePolicies.getDefaultSerializer(), jsonSerializer, binarySerializer))
+                .entryTtl(cachePolicies.getDefaultTtl());
 
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(config)
+        Map<String, RedisCacheConfiguration> cacheConfigs = new HashMap<>();
+        cachePolicies.getSpecs().keySet().forEach(cacheName ->
+                cacheConfigs.put(cacheName, cacheConfiguration(
+                        serializerFor(cachePolicies.serializerFor(cacheName), jsonSerializer, binarySerializer))
+                        .entryTtl(cachePolicies.ttlFor(cacheName))));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaultConfig)
+                .withInitialCacheConfigurations(cacheConfigs)
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        // L1 (lokal, kurze TTL) vor L2 (Redis); Evictions werden per Pub/Sub an alle Knoten verteilt
+        return new TwoLevelCacheManager(redisCacheManager, stringRedisTemplate, cachePolicies, meterRegistry);
+    }
+
+    private static RedisCacheConfiguration cacheConfiguration(RedisSerializer<?> serializer) {
+        return RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer));
+    }
+
+    private static RedisSerializer<?> serializerFor(CachePolicyProperties.Serializer type,
+                                                    GenericJackson2JsonRedisSerializer jsonSerializer,
+                                                    BinaryRedisSerializer binarySerializer) {
+        return switch (type) {
+            case JSON -> jsonSerializer;
+            case BINARY -> binarySerializer;
+        };
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       TwoLevelCacheManager cacheManager,
+                                                                       TokenBlacklist tokenBlacklist) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        container.addMessageListener(tokenBlacklist, new ChannelTopic(TokenBlacklist.CHANNEL));
+        return container;
     }
 
     @Bean(name = "redisObjectMapper")
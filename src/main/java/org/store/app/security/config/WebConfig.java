@@ -1,16 +1,22 @@
 package org.store.app.security.config;
 
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.store.app.controller.LoginMergeInterceptor;
 
 @Configuration
 @Slf4j
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final LoginMergeInterceptor loginMergeInterceptor;
+
     @Value("${cors_allowed_origin}")
     private String corsAllowedOrigin;
 
@@ -29,4 +35,12 @@ public class WebConfig implements WebMvcConfigurer {
                 .exposedHeaders("X-XSRF-TOKEN")
                 .allowCredentials(true);
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Bestellung und Checkout lesen den Warenkorb und müssen den zusammengeführten Stand sehen
+        registry.addInterceptor(loginMergeInterceptor)
+                .addPathPatterns("/store/api/cart/**", "/store/api/wishlist/**",
+                        "/store/api/orders", "/store/api/checkout/create-session");
+    }
 }
@@ -1,6 +1,7 @@
 package org.store.app.security.filter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
@@ -10,11 +11,10 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -22,6 +22,9 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import org.store.app.exception.EmailNotVerifiedException;
 import org.store.app.exception.ErrorResponse;
 import org.store.app.security.jwt.JwtTokenProvider;
+import org.store.app.security.userdetails.CustomUserDetails;
+import org.store.app.service.TokenVersionService;
+import org.store.app.service.UserPrincipalService;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
@@ -32,8 +35,15 @@ import java.time.format.DateTimeFormatter;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final UserPrincipalService userPrincipalService;
     private final ObjectMapper objectMapper;
+    private final TokenVersionService tokenVersionService;
+
+    // true: Principal wird aus den JWT-Claims gebaut, ohne Datenbankzugriff pro Request. Rollen und
+    // Sperr-/Verifizierungsstatus gelten dann bis zum Ablauf des Tokens, Widerruf nur über token_version.
+    // Die Spalte token_version (db/customers_token_version.sql) wird in beiden Modi benötigt.
+    @Value("${app.security.stateless-authentication:false}")
+    private boolean statelessAuthentication;
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
@@ -49,15 +59,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
             String token = jwtTokenProvider.getTokenFromRequest(request);
 
-            if (StringUtils.hasText(token) && jwtTokenProvider.validateToken(token)) {
-                if (jwtTokenProvider.isTokenBlacklisted(token)) {
-                    logger.warn("Token blacklisted: {}", token);
+            if (StringUtils.hasText(token)) {
+                Claims claims = jwtTokenProvider.parseAccessToken(token);
+                if (jwtTokenProvider.isTokenBlacklisted(claims, token)) {
+                    logger.warn("Token blacklisted for user: {}", claims.getSubject());
                     SecurityContextHolder.clearContext();
                     sendErrorResponse(response, "Token blacklisted. Please login again.", HttpStatus.UNAUTHORIZED, request.getRequestURI());
                     return;
                 }
-                String username = jwtTokenProvider.getUsername(token);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                CustomUserDetails userDetails = statelessAuthentication
+                        ? jwtTokenProvider.toUserDetails(claims)
+                        : userPrincipalService.loadPrincipalByEmail(claims.getSubject());
+
+                if (!isCurrentTokenVersion(claims, userDetails)) {
+                    logger.warn("Token version outdated for user: {}", userDetails.getUsername());
+                    SecurityContextHolder.clearContext();
+                    sendErrorResponse(response, "Token revoked. Please login again.", HttpStatus.UNAUTHORIZED, request.getRequestURI());
+                    return;
+                }
 
                 UsernamePasswordAuthenticationToken authenticationToken =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
@@ -82,6 +101,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
+    private boolean isCurrentTokenVersion(Claims claims, CustomUserDetails userDetails) {
+        int currentVersion = statelessAuthentication
+                ? tokenVersionService.getCurrentVersion(userDetails.getId())
+                : userDetails.getTokenVersion();
+        return jwtTokenProvider.getTokenVersion(claims) == currentVersion;
+    }
+
     private void sendErrorResponse(HttpServletResponse response, String message, HttpStatus status, String path) throws IOException {
         response.setStatus(status.value());
         response.setContentType("application/json");
@@ -1,25 +1,38 @@
 package org.store.app.security.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.store.app.security.config.CookieProperties;
 import org.store.app.security.userdetails.CustomUserDetails;
+import org.store.app.service.UserPrincipalService;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 @Component
@@ -27,6 +40,14 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class JwtTokenProvider {
 
+    public static final String CLAIM_ID = "id";
+    public static final String CLAIM_NAME = "name";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_PHONE = "phone";
+    public static final String CLAIM_COUNTRY_CODE = "countryCode";
+    public static final String CLAIM_DIAL_CODE = "dialCode";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${jwt.secret.key}")
     private String jwtSecret;
     @Value("${jwt.expiration.time}")
@@ -51,12 +72,90 @@ public class JwtTokenProvider {
     @Value("${jwt.email.verification.expiration.time}")
     private long jwtEmailVerificationExpirationTime;
 
-    private final RedisTemplate<String, String> redisTemplate;
+    @Value("${jwt.claims.cache.max-entries:10000}")
+    private long claimsCacheMaxEntries;
+
+    private final TokenBlacklist tokenBlacklist;
 
-    private final UserDetailsService userDetailsService;
+    private final UserPrincipalService userPrincipalService;
 
     private final CookieProperties cookieProperties;
 
+    // Schlüssel und Parser werden einmalig erzeugt statt bei jedem Aufruf
+    private SecretKey accessKey;
+    private SecretKey refreshKey;
+    private SecretKey resetKey;
+    private SecretKey emailVerificationKey;
+    private JwtParser accessParser;
+    private JwtParser refreshParser;
+    private JwtParser resetParser;
+    private JwtParser emailVerificationParser;
+
+    // Bereits verifizierte Access-Tokens (SHA-256 des Tokens -> Claims), gültig bis zum Ablauf des Tokens
+    private Cache<String, Claims> verifiedClaims;
+
+    @PostConstruct
+    public void init() {
+        accessKey = hmacKey(jwtSecret);
+        refreshKey = hmacKey(jwtRefreshSecret);
+        resetKey = hmacKey(jwtResetSecret);
+        emailVerificationKey = hmacKey(jwtEmailVerificationSecret);
+        accessParser = Jwts.parser().verifyWith(accessKey).build();
+        refreshParser = Jwts.parser().verifyWith(refreshKey).build();
+        resetParser = Jwts.parser().verifyWith(resetKey).build();
+        emailVerificationParser = Jwts.parser().verifyWith(emailVerificationKey).build();
+        verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxEntries)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    private static SecretKey hmacKey(String secret) {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    }
+
+    /**
+     * Validiert das Access-Token genau einmal und liefert dessen Claims.
+     * Wirft {@link io.jsonwebtoken.JwtException} (z.B. ExpiredJwtException) bei ungültigen Tokens.
+     */
+    public Claims parseAccessToken(String token) {
+        String cacheKey = hashToken(token);
+        Claims cached = verifiedClaims.getIfPresent(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = accessParser.parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() != null) {
+            verifiedClaims.put(cacheKey, claims);
+        }
+        return claims;
+    }
+
+    static String hashToken(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
 
     public String generateToken(Authentication authentication) {
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
@@ -68,20 +167,29 @@ public class JwtTokenProvider {
         Date currentDate = new Date();
         Date expireDate = new Date(currentDate.getTime() + jwtExpirationTime);
 
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
-                .claim("id", id)
-                .claim("name", name)
-                .claim("roles", userDetails.getAuthorities())
+                .claim(CLAIM_ID, id)
+                .claim(CLAIM_NAME, name)
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_PHONE, userDetails.getPhone())
+                .claim(CLAIM_COUNTRY_CODE, userDetails.getCountryCode())
+                .claim(CLAIM_DIAL_CODE, userDetails.getDialCode())
+                .claim(CLAIM_TOKEN_VERSION, userDetails.getTokenVersion())
                 .issuedAt(currentDate)
                 .expiration(expireDate)
-                .signWith(key())
+                .signWith(accessKey)
                 .compact();
     }
 
     public String generateToken(String username) {
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        UserDetails userDetails = userPrincipalService.loadPrincipalByEmail(username);
 
         Authentication authentication = new UsernamePasswordAuthenticationToken(
                 userDetails, null, userDetails.getAuthorities());
@@ -89,21 +197,53 @@ public class JwtTokenProvider {
         return generateToken(authentication);
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    /**
+     * Baut die {@link CustomUserDetails} ohne Datenbankzugriff aus den Claims eines validierten Access-Tokens.
+     * Das Passwort ist dabei nicht enthalten.
+     */
+    public CustomUserDetails toUserDetails(Claims claims) {
+        Object rolesClaim = claims.get(CLAIM_ROLES);
+        List<SimpleGrantedAuthority> authorities = rolesClaim instanceof List<?> roles
+                ? roles.stream().map(JwtTokenProvider::toAuthority).toList()
+                : List.of();
+        return new CustomUserDetails(
+                claims.get(CLAIM_ID, Number.class).longValue(),
+                claims.getSubject(),
+                claims.get(CLAIM_NAME, String.class),
+                null,
+                claims.get(CLAIM_PHONE, String.class),
+                claims.get(CLAIM_COUNTRY_CODE, String.class),
+                claims.get(CLAIM_DIAL_CODE, String.class),
+                authorities,
+                true,
+                getTokenVersion(claims)
+        );
+    }
+
+    public int getTokenVersion(Claims claims) {
+        // Tokens ohne Versions-Claim stammen aus der Zeit vor der Versionierung
+        Number version = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        return version != null ? version.intValue() : 0;
+    }
+
+    private static SimpleGrantedAuthority toAuthority(Object role) {
+        // Ältere Tokens enthalten die serialisierten GrantedAuthority-Objekte ({"authority": "..."})
+        if (role instanceof Map<?, ?> map) {
+            return new SimpleGrantedAuthority(String.valueOf(map.get("authority")));
+        }
+        return new SimpleGrantedAuthority(String.valueOf(role));
     }
 
     public String getUsername(String token) {
-        return Jwts.parser().verifyWith((SecretKey) key()).build().parseSignedClaims(token).getPayload().getSubject();
+        return parseAccessToken(token).getSubject();
     }
 
     public long getExpirationFromToken(String token) {
-        return Jwts.parser().verifyWith((SecretKey) key()).build().parseSignedClaims(token).getPayload().getExpiration().getTime();
-
+        return parseAccessToken(token).getExpiration().getTime();
     }
 
     public boolean validateToken(String token) {
-        Jwts.parser().verifyWith((SecretKey) key()).build().parse(token);
+        parseAccessToken(token);
         return true;
     }
 
@@ -118,16 +258,32 @@ public class JwtTokenProvider {
         return null;
     }
 
-    public void addTokenToBlacklist(String token, long expirationMillis) {
+    public void blacklistAccessToken(String token) {
+        addTokenToBlacklist(token, parseAccessToken(token));
+    }
+
+    public void blacklistRefreshToken(String token) {
+        addTokenToBlacklist(token, refreshParser.parseSignedClaims(token).getPayload());
+    }
+
+    private void addTokenToBlacklist(String token, Claims claims) {
+        long expirationMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
         if (expirationMillis <= 0) {
-            log.warn("Token expiration time is not set. Token will not be blacklisted.");
+            log.warn("Token already expired. Token will not be blacklisted.");
             return;
         }
-        redisTemplate.opsForValue().set(token, "blacklisted", expirationMillis, TimeUnit.MILLISECONDS);
+        tokenBlacklist.add(getTokenId(claims, token), expirationMillis);
+    }
+
+    public boolean isTokenBlacklisted(Claims claims, String token) {
+        return tokenBlacklist.contains(getTokenId(claims, token));
     }
 
-    public boolean isTokenBlacklisted(String token) {
-        return redisTemplate.hasKey(token);
+    /**
+     * Kurze, eindeutige ID für die Blacklist: der {@code jti}-Claim bzw. der Hash bei älteren Tokens ohne {@code jti}.
+     */
+    private static String getTokenId(Claims claims, String token) {
+        return claims.getId() != null ? claims.getId() : hashToken(token);
     }
 
     public String generatePasswordResetToken(String email) {
@@ -138,16 +294,13 @@ public class JwtTokenProvider {
                 .subject(email)
                 .issuedAt(now)
                 .expiration(expiry)
-                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtResetSecret)))
+                .signWith(resetKey)
                 .compact();
     }
 
     public boolean validatePasswordResetToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtResetSecret)))
-                    .build()
-                    .parse(token);
+            resetParser.parse(token);
             return true;
         } catch (Exception e) {
             return false;
@@ -161,35 +314,29 @@ public class JwtTokenProvider {
         Date expiry = new Date(now.getTime() + jwtRefreshExpirationTime);
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .issuedAt(now)
                 .expiration(expiry)
-                .signWith(getRefreshKey())
+                .signWith(refreshKey)
                 .compact();
     }
 
     public boolean validateRefreshToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtRefreshSecret)))
-                    .build().parse(token);
-            return !isTokenBlacklisted(token);
+            Claims claims = refreshParser.parseSignedClaims(token).getPayload();
+            return !isTokenBlacklisted(claims, token);
         } catch (Exception e) {
             return false;
         }
     }
 
     public String getUsernameFromRefreshToken(String token) {
-        return Jwts.parser().verifyWith((SecretKey) getRefreshKey()).build().parseSignedClaims(token).getPayload().getSubject();
-    }
-
-    private Key getRefreshKey() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtRefreshSecret));
+        return refreshParser.parseSignedClaims(token).getPayload().getSubject();
     }
 
     public long getExpirationFromRefreshToken(String token) {
-        return Jwts.parser().verifyWith((SecretKey) getRefreshKey()).build().parseSignedClaims(token).getPayload().getExpiration().getTime();
-
+        return refreshParser.parseSignedClaims(token).getPayload().getExpiration().getTime();
     }
 
     // ---------  Email Verification Token ---------
@@ -202,17 +349,14 @@ public class JwtTokenProvider {
                 .subject(email)
                 .issuedAt(now)
                 .expiration(expiry)
-                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtEmailVerificationSecret)))
+                .signWith(emailVerificationKey)
                 .compact();
     }
 
 
     public boolean validateEmailVerificationToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtEmailVerificationSecret)))
-                    .build()
-                    .parse(token);
+            emailVerificationParser.parse(token);
             return true;
         } catch (Exception e) {
             return false;
@@ -221,11 +365,6 @@ public class JwtTokenProvider {
 
 
     public String getEmailFromEmailVerificationToken(String token) {
-        return Jwts.parser()
-                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtEmailVerificationSecret)))
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return emailVerificationParser.parseSignedClaims(token).getPayload().getSubject();
     }
 }
@@ -0,0 +1,136 @@
+package org.store.app.security.jwt;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.store.app.common.cache.BloomFilter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blacklist für abgemeldete Tokens. In Redis wird nur die Token-ID ({@code jti} bzw. Hash) unter
+ * {@code blacklist:<id>} mit der Restlaufzeit des Tokens gespeichert.
+ * Ein lokaler Bloom-Filter beantwortet den Normalfall "nicht gesperrt" ohne Redis-Zugriff;
+ * nur mögliche Treffer werden in Redis geprüft. Neue Einträge werden per Pub/Sub an alle Knoten
+ * verteilt, zusätzlich wird der Filter periodisch aus Redis neu aufgebaut (entfernt abgelaufene
+ * Einträge und gleicht verlorene Nachrichten aus). Solange noch kein Filter geladen ist, wird
+ * jede Anfrage direkt in Redis geprüft.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenBlacklist implements MessageListener {
+
+    public static final String CHANNEL = "token:blacklist";
+    private static final String KEY_PREFIX = "blacklist:";
+    private static final String LEGACY_VALUE = "blacklisted";
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${app.security.blacklist.expected-entries:100000}")
+    private long expectedEntries;
+
+    @Value("${app.security.blacklist.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+    private volatile boolean legacyEntriesMigrated;
+
+    public void add(String tokenId, long ttlMillis) {
+        redisTemplate.opsForValue().set(KEY_PREFIX + tokenId, "1", ttlMillis, TimeUnit.MILLISECONDS);
+        putLocal(tokenId);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, tokenId);
+        } catch (Exception e) {
+            // Andere Knoten übernehmen den Eintrag spätestens beim nächsten Rebuild
+            log.warn("Failed to publish blacklisted token id: {}", e.getMessage());
+        }
+    }
+
+    public boolean contains(String tokenId) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(tokenId)) {
+            return false;
+        }
+        return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + tokenId));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        putLocal(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.blacklist.rebuild-interval:PT10M}", initialDelay = 0)
+    public void rebuild() {
+        BloomFilter next = new BloomFilter(expectedEntries, falsePositiveRate);
+        rebuilding = next;
+        try {
+            if (!legacyEntriesMigrated) {
+                migrateLegacyEntries();
+                legacyEntriesMigrated = true;
+            }
+            long count = 0;
+            try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions()
+                    .match(KEY_PREFIX + "*")
+                    .count(1000)
+                    .build())) {
+                while (cursor.hasNext()) {
+                    next.put(cursor.next().substring(KEY_PREFIX.length()));
+                    count++;
+                }
+            }
+            filter = next;
+            log.debug("Token blacklist filter rebuilt with {} entries", count);
+        } catch (Exception e) {
+            // Vorheriger Filter bleibt aktiv; ohne Filter wird direkt in Redis geprüft
+            log.warn("Failed to rebuild token blacklist filter: {}", e.getMessage());
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private void putLocal(String tokenId) {
+        // Einträge während eines Rebuilds auch in den neuen Filter schreiben, damit sie beim Tausch nicht fehlen
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(tokenId);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(tokenId);
+        }
+    }
+
+    /**
+     * Früher wurde das komplette JWT als Key gespeichert. Diese Einträge werden einmalig
+     * auf {@code blacklist:<sha256>} mit der verbleibenden TTL umgeschrieben.
+     */
+    private void migrateLegacyEntries() {
+        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions()
+                .match("eyJ*")
+                .count(1000)
+                .build())) {
+            while (cursor.hasNext()) {
+                String token = cursor.next();
+                if (!LEGACY_VALUE.equals(redisTemplate.opsForValue().get(token))) {
+                    continue;
+                }
+                Long ttlMillis = redisTemplate.getExpire(token, TimeUnit.MILLISECONDS);
+                if (ttlMillis != null && ttlMillis > 0) {
+                    redisTemplate.opsForValue().set(KEY_PREFIX + JwtTokenProvider.hashToken(token), "1",
+                            ttlMillis, TimeUnit.MILLISECONDS);
+                }
+                redisTemplate.delete(token);
+            }
+        }
+    }
+}
@@ -18,10 +18,11 @@ public class CustomUserDetails implements UserDetails {
     private final String countryCode;
     private final String dialCode;
     private final boolean enabled;
+    private final int tokenVersion;
 
     public CustomUserDetails(Long id, String email, String name, String password,
                              String phone, String countryCode, String dialCode,
-                             Collection<? extends GrantedAuthority> authorities,boolean enabled) {
+                             Collection<? extends GrantedAuthority> authorities, boolean enabled, int tokenVersion) {
         this.id = id;
         this.email = email;
         this.name = name;
@@ -31,6 +32,7 @@ public class CustomUserDetails implements UserDetails {
         this.dialCode = dialCode;
         this.authorities = authorities;
         this.enabled = enabled;
+        this.tokenVersion = tokenVersion;
     }
 
     @Override
@@ -0,0 +1,41 @@
+package org.store.app.security.userdetails;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Invalidierung des Caches 'userDetails' (E-Mail -> {@link CustomUserDetails}).
+ * Befüllt wird der Cache über {@code @Cacheable} in {@code UserDetailsServiceImpl#loadPrincipalByEmail};
+ * die Einträge enthalten keinen Passwort-Hash. Der Login lädt den Kunden ungecacht über {@code loadUserByUsername}.
+ * Rollen werden nur bei der Registrierung vergeben, bevor ein Eintrag existieren kann; Änderungen an
+ * customer_roles außerhalb der Anwendung greifen erst nach Ablauf der TTL.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserDetailsCache {
+
+    public static final String CACHE_NAME = "userDetails";
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Cache-Key: E-Mail in Kleinbuchstaben, damit unterschiedliche Schreibweisen beim Login auf denselben Eintrag zeigen.
+     */
+    public static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    public void evict(String email) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null && email != null) {
+            cache.evict(key(email));
+            log.info("Cache '{}' evicted for email={}", CACHE_NAME, email);
+        }
+    }
+}
@@ -21,5 +21,7 @@ public interface CartService {
 
     void updateCartStatus(Long cartId, CartStatus newStatus);
 
+    void evictCartCache(Long cartId, String sessionId);
+
     int deleteOldAnonymousCarts(LocalDateTime cutoffDate);
 }
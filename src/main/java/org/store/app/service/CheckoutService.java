@@ -1,10 +1,14 @@
 package org.store.app.service;
 
-import com.stripe.exception.StripeException;
-import com.stripe.model.checkout.Session;
 import org.store.app.security.userdetails.CustomUserDetails;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface CheckoutService {
 
-    Session createCheckoutSession(Long orderId, String currency, CustomUserDetails userDetails) throws StripeException;
+    /**
+     * Prüft die Bestellung synchron und liefert die URL der Checkout-Session. Eine noch gültige Session
+     * der Bestellung wird wiederverwendet, sonst wird asynchron eine neue bei Stripe angelegt.
+     */
+    CompletableFuture<String> createCheckoutSession(Long orderId, String currency, CustomUserDetails userDetails);
 }
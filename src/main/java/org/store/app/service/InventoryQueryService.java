@@ -1,5 +1,23 @@
 package org.store.app.service;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface InventoryQueryService {
     int getAvailableStock(Long productId);
+
+    /**
+     * Verfügbarer Bestand je Produkt (abzüglich offener Reservierungen); Produkte ohne Bestandszeilen liefern 0.
+     */
+    Map<Long, Integer> getAvailableStock(Collection<Long> productIds);
+
+    /**
+     * Write-Through für Reservierungen: verändert vorhandene Bestandszähler um die angegebenen Deltas.
+     */
+    void adjustCachedStock(Map<Long, Integer> deltas);
+
+    /**
+     * Gleicht alle gecachten Bestandszähler mit den Tabellen 'stock' und 'stock_reservations' ab und liefert deren Anzahl.
+     */
+    int reconcileCachedStock();
 }
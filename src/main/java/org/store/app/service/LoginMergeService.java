@@ -0,0 +1,17 @@
+package org.store.app.service;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface LoginMergeService {
+
+    /**
+     * Startet das Zusammenführen von Gast-Warenkorb und -Wunschliste im Hintergrund.
+     * Pro sessionId läuft höchstens ein Merge; ein erneuter Aufruf liefert den laufenden Merge zurück.
+     */
+    CompletableFuture<Void> scheduleMerge(String email, String sessionId);
+
+    /**
+     * Wartet (begrenzt) auf einen laufenden Merge der Session, damit Lesezugriffe den zusammengeführten Stand sehen.
+     */
+    void awaitMerge(String sessionId);
+}
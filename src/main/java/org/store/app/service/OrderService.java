@@ -1,21 +1,32 @@
 package org.store.app.service;
 
-import org.store.app.common.ValueWrapper;
-import org.store.app.dto.OrderDTO;
+import org.store.app.dto.OrderPageDTO;
 import org.store.app.dto.OrderResponseCreatedDTO;
 import org.store.app.enums.OrderStatus;
 import org.store.app.model.Order;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 public interface OrderService {
 
-    ValueWrapper<List<OrderDTO>> getOrdersByCustomerAndStatus(Long customerId, OrderStatus status);
+    /**
+     * Eine Seite der Bestellhistorie, neueste zuerst. {@code cursor} ist der {@code nextCursor}
+     * der vorherigen Seite oder {@code null} für die erste Seite.
+     */
+    OrderPageDTO getOrdersByCustomerAndStatus(Long customerId, OrderStatus status, String cursor, int size);
 
     OrderResponseCreatedDTO createOrder(Long billingAddressId, Long customerId);
 
     Order updateOrderStatus(Long orderId, OrderStatus status, Long customerId);
 
+    /**
+     * Storniert offene Bestellungen ohne gültige Checkout-Session, die vor {@code createdBefore} angelegt wurden,
+     * und gibt ihre Reservierungen frei.
+     *
+     * @return Anzahl der stornierten Bestellungen (höchstens {@code limit})
+     */
+    int cancelAbandonedOrders(LocalDateTime createdBefore, int limit);
+
      void sendOrderConfirmationEmail(Long orderId, String currency);
 
     boolean hasCustomerPurchasedProduct(Long customerId, Long productId,OrderStatus status);
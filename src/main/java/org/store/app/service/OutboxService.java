@@ -0,0 +1,12 @@
+package org.store.app.service;
+
+import org.store.app.enums.OutboxEventType;
+
+public interface OutboxService {
+
+    /**
+     * Legt ein Event in 'outbox_events' ab. Muss innerhalb der fachlichen Transaktion aufgerufen werden,
+     * damit das Event genau dann sichtbar wird, wenn deren Änderungen committet sind.
+     */
+    void enqueue(OutboxEventType type, Long aggregateId, String payload);
+}
@@ -5,9 +5,25 @@ import org.store.app.model.Order;
 import org.store.app.model.Payment;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 public interface PaymentService {
 
     Payment createPendingPayment(Order order, BigDecimal amount, String method);
     void updatePaymentStatus(Long paymentId, PaymentStatus status, String transactionId, String responseMessage);
+
+    /**
+     * Hält Transaktions-ID und Meldung eines Zahlungsversuchs fest, ohne den Status zu ändern.
+     */
+    void recordPaymentAttempt(Long paymentId, String transactionId, String responseMessage);
+
+    /**
+     * Letzte offene Zahlung der Bestellung, deren Checkout-Session noch verwendet werden kann: entweder
+     * mit Session, die bis {@code validUntil} gültig ist, oder noch ohne Session und nach {@code createdAfter}
+     * angelegt (vorheriger Aufruf bei Stripe abgebrochen oder noch unterwegs).
+     */
+    Optional<Payment> findReusablePayment(Long orderId, LocalDateTime validUntil, LocalDateTime createdAfter);
+
+    void attachCheckoutSession(Long paymentId, String sessionId, String url, LocalDateTime expiresAt);
 }
@@ -0,0 +1,31 @@
+package org.store.app.service;
+
+import org.store.app.dto.ProductInfoDTO;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * In-Memory-Snapshot der Produktdaten aus {@code product_summary} für die Anreicherung von
+ * Warenkorb, Wunschliste und Bestellungen. Wird beim Start geladen und periodisch über
+ * {@code updated_at} inkrementell aktualisiert.
+ */
+public interface ProductCatalogSnapshot {
+
+    /**
+     * Liefert die Produktdaten zu den IDs. Nicht im Snapshot enthaltene Produkte werden in einer
+     * Abfrage nachgeladen; unbekannte Produkte fehlen in der Map.
+     */
+    Map<Long, ProductSummary> getProducts(Collection<Long> productIds);
+
+    void refresh();
+
+    record ProductSummary(long productId, String name, String description, String imageUrl,
+                          BigDecimal sellingPrice, long totalStock) {
+
+        public ProductInfoDTO toProductInfo() {
+            return new ProductInfoDTO(name, description, imageUrl, totalStock);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.store.app.service;
+
+import java.util.Map;
+
+public interface StockReservationService {
+
+    /**
+     * Reserviert die Mengen je Produkt atomar für eine Bestellung.
+     * Reicht der freie Bestand (Bestand minus offene Reservierungen) nicht aus, wird nichts reserviert
+     * und wie bei der Bestandsprüfung des Warenkorbs eine {@code ResourceNotFoundException} geworfen.
+     */
+    void reserve(Long orderId, Map<Long, Integer> quantities);
+
+    /**
+     * Bucht die offenen Reservierungen der Bestellung vom Bestand ab (bezahlte Bestellung).
+     */
+    void commit(Long orderId);
+
+    /**
+     * Gibt die offenen Reservierungen der Bestellung wieder frei (abgebrochene Bestellung).
+     */
+    void release(Long orderId);
+}
@@ -3,12 +3,26 @@ package org.store.app.service;
 import com.stripe.model.Event;
 import com.stripe.model.checkout.Session;
 
+import java.util.Set;
+
+/**
+ * Handler für Stripe-Events. Der {@link org.store.app.common.StripeEventDispatcher} ordnet Handler beim Start
+ * anhand von {@link #eventTypes()} zu; mehrere Handler je Typ laufen in {@code @Order}-Reihenfolge.
+ */
 public interface StripeEventHandlerService {
 
-    boolean canHandle(String eventType);
+    Set<String> eventTypes();
 
     void handle(Event event);
 
+    /**
+     * Asynchrone Handler laufen erst nach dem Commit der Event-Verarbeitung auf einem eigenen Pool.
+     * Fehler werden nur protokolliert, das Event gilt trotzdem als verarbeitet.
+     */
+    default boolean async() {
+        return false;
+    }
+
     default Session extractSession(Event event) {
         return (Session) event.getDataObjectDeserializer().getObject().orElse(null);
     }
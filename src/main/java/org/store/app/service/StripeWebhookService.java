@@ -0,0 +1,20 @@
+package org.store.app.service;
+
+import com.stripe.model.Event;
+
+public interface StripeWebhookService {
+
+    /**
+     * Speichert ein verifiziertes Event und reiht es nach dem Commit zur Verarbeitung ein.
+     *
+     * @return {@code false}, wenn das Event bereits zugestellt wurde
+     */
+    boolean accept(Event event, String payload);
+
+    /**
+     * Reiht gespeicherte Events erneut ein, die fällig sind oder deren Verarbeitung abgebrochen wurde.
+     *
+     * @return Anzahl der erneut eingereihten Events
+     */
+    int resubmitPending();
+}
@@ -0,0 +1,8 @@
+package org.store.app.service;
+
+public interface TokenVersionService {
+
+    int getCurrentVersion(Long customerId);
+
+    void evict(Long customerId);
+}
@@ -0,0 +1,12 @@
+package org.store.app.service;
+
+import org.store.app.security.userdetails.CustomUserDetails;
+
+public interface UserPrincipalService {
+
+    /**
+     * Lädt den Principal für bereits authentifizierte Anfragen (JWT). Das Ergebnis wird gecacht und
+     * enthält deshalb keinen Passwort-Hash; der Login prüft das Passwort über {@code loadUserByUsername}.
+     */
+    CustomUserDetails loadPrincipalByEmail(String email);
+}
@@ -2,33 +2,40 @@ package org.store.app.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.store.app.common.cache.CartCacheIndex;
 import org.store.app.dto.CartDTO;
 import org.store.app.enums.CartStatus;
+import org.store.app.enums.OutboxEventType;
 import org.store.app.exception.ResourceNotFoundException;
 import org.store.app.mapper.CartMapper;
 import org.store.app.model.Cart;
 import org.store.app.model.CartItem;
 import org.store.app.model.Customer;
-import org.store.app.projection.CartItemProductProjection;
 import org.store.app.repository.CartItemRepository;
 import org.store.app.repository.CartRepository;
 import org.store.app.repository.CustomerRepository;
 import org.store.app.service.CartService;
 import org.store.app.service.InventoryQueryService;
+import org.store.app.service.OutboxService;
+import org.store.app.service.ProductCatalogSnapshot;
 
 import java.math.BigDecimal;
 import java.nio.file.AccessDeniedException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -40,6 +47,10 @@ public class CartServiceImpl implements CartService {
     private final CustomerRepository customerRepository;
     private final InventoryQueryService inventoryQueryService;
     private final CartMapper cartMapper;
+    private final CacheManager cacheManager;
+    private final CartCacheIndex cartCacheIndex;
+    private final ProductCatalogSnapshot productCatalog;
+    private final OutboxService outboxService;
 
     @Override
     @Transactional
@@ -56,6 +67,7 @@ public class CartServiceImpl implements CartService {
             cart.setCustomer(customer);
             cart.setSessionId(sessionId);
             Cart saved = cartRepository.save(cart);
+            cartCacheIndex.register(saved.getId(), sessionId);
             return cartMapper.toDto(saved);
         }
 
@@ -66,13 +78,17 @@ public class CartServiceImpl implements CartService {
             cart.setStatus(CartStatus.ACTIVE);
             cart.setSessionId(sessionId);
             Cart saved = cartRepository.save(cart);
+            cartCacheIndex.register(saved.getId(), sessionId);
             return cartMapper.toDto(saved);
         }
 
-        List<CartItemProductProjection> projections = cartItemRepository.findCartItemsWithProductInfo(cart.getId());
+        List<CartItem> items = cartItemRepository.findByCartId(cart.getId());
+        Map<Long, ProductCatalogSnapshot.ProductSummary> products = productCatalog.getProducts(
+                items.stream().map(CartItem::getProductId).toList());
 
-        CartDTO cartDTO = cartMapper.toDtoFromProjections(cart.getId(), projections);
-        log.info("Loaded {} cart items from database for cartId={} (set in cache with Key='session:{}')", projections.size(), cart.getId(), sessionId);
+        CartDTO cartDTO = cartMapper.toDtoFromItems(cart.getId(), items, products);
+        cartCacheIndex.register(cart.getId(), sessionId);
+        log.info("Loaded {} cart items from database for cartId={} (set in cache with Key='session:{}')", items.size(), cart.getId(), sessionId);
         return cartDTO;
     }
 
@@ -92,28 +108,18 @@ public class CartServiceImpl implements CartService {
             throw new AccessDeniedException("Unauthorized access");
         }
         int availableStock = inventoryQueryService.getAvailableStock(productId);
-        int existingQuantity = cartItemRepository.findQuantityByCartIdAndProductId(cart.getId(), productId).orElse(0);
-        int requestedTotalQuantity = existingQuantity + quantity;
-
-        if (requestedTotalQuantity > availableStock) {
+        if (quantity > availableStock) {
             throw new IllegalArgumentException("Out of stock");
         }
 
-        CartItem item = cartItemRepository.findByCartIdAndProductId(cart.getId(), productId).map(existingItem -> {
-            existingItem.setQuantity(existingItem.getQuantity() + quantity);
-            log.info("Updated existing cart item: productId={}, newQuantity={}", productId, existingItem.getQuantity());
-            return existingItem;
-        }).orElseGet(() -> {
-            CartItem newItem = new CartItem();
-            newItem.setCart(cart);
-            newItem.setProductId(productId);
-            newItem.setUnitPrice(unitPrice); //Todo::  تأكد من أنك تثق بهذا السعر أو حمّله من قاعدة البيانات
-            newItem.setQuantity(quantity);
-            log.info("Added new cart item: productId={}, quantity={}", productId, quantity);
-            return newItem;
-        });
-
-        cartItemRepository.save(item);
+        //Todo::  تأكد من أنك تثق بهذا السعر أو حمّله من قاعدة البيانات
+        cartItemRepository.upsertQuantity(cart.getId(), productId, quantity, unitPrice);
+        // Gesamtmenge erst nach dem Upsert prüfen; bei Überschreitung wird die Transaktion zurückgerollt
+        int newQuantity = cartItemRepository.findQuantityByCartIdAndProductId(cart.getId(), productId).orElse(quantity);
+        if (newQuantity > availableStock) {
+            throw new IllegalArgumentException("Out of stock");
+        }
+        log.info("Upserted cart item: productId={}, newQuantity={}", productId, newQuantity);
         logCacheEvict(sessionId);
     }
 
@@ -188,78 +194,88 @@ public class CartServiceImpl implements CartService {
     @Caching(evict = {
             @CacheEvict(value = "cart", key = "'session:' + #sessionId")})
     public void mergeCartOnLogin(String email, String sessionId) {
-        Customer customer = customerRepository.findByEmail(email).orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
-
-        Optional<Cart> userCartOpt = cartRepository.findByCustomerAndStatus(customer, CartStatus.ACTIVE);
-        Optional<Cart> sessionCartOpt = cartRepository.findBySessionIdAndStatus(sessionId, CartStatus.ACTIVE);
-
-        if (sessionCartOpt.isEmpty()) {
+        // Kunden- und Gast-Warenkorb in einer Abfrage; ein Warenkorb mit Kunde gehört immer zu 'email'
+        List<Cart> carts = cartRepository.findByEmailOrSessionIdAndStatus(email, sessionId, CartStatus.ACTIVE);
+        Cart userCart = carts.stream()
+                .filter(cart -> cart.getCustomer() != null)
+                .findFirst()
+                .orElse(null);
+        Cart sessionCart = carts.stream()
+                .filter(cart -> cart != userCart && sessionId.equals(cart.getSessionId()))
+                .findFirst()
+                .orElse(null);
+
+        if (sessionCart == null) {
             // لا يوجد سلة مؤقتة، لا شيء لدمجه
             return;
         }
 
-        Cart sessionCart = sessionCartOpt.get();
-
-        if (userCartOpt.isEmpty()) {
+        if (userCart == null) {
             // ليس لدى المستخدم سلة، قم بتحويل السلة المؤقتة إلى سلة المستخدم
+            Customer customer = customerRepository.findByEmail(email).orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
             sessionCart.setCustomer(customer);
             cartRepository.save(sessionCart);
         } else {
-            Cart userCart = userCartOpt.get();
-
-            // دمج عناصر السلة
-            List<CartItem> sessionItems = cartItemRepository.findByCart(sessionCart);
-            List<CartItem> userItems = cartItemRepository.findByCart(userCart);
-
-            Map<Long, CartItem> userItemsMap = userItems.stream().collect(Collectors.toMap(CartItem::getProductId, item -> item));
-            List<CartItem> itemsToDelete = new ArrayList<>();
-            for (CartItem sessionItem : sessionItems) {
-                CartItem userItem = userItemsMap.get(sessionItem.getProductId());
-                int availableStock = inventoryQueryService.getAvailableStock(sessionItem.getProductId());
-                int desiredQuantity = sessionItem.getQuantity();
-                if (userItem != null) {
-                    desiredQuantity += userItem.getQuantity();
-                }
-                if (desiredQuantity > availableStock) {
-                    log.warn("Insufficient stock for productId={}, requested={}, available={}, email={}",
-                            sessionItem.getProductId(), desiredQuantity, availableStock, email);
-                }
-                int finalQuantity = Math.min(desiredQuantity, availableStock);
-                if (userItem != null) {
-                    // دمج الكميات
-                    userItem.setQuantity(finalQuantity);
-                    cartItemRepository.save(userItem);
-                    itemsToDelete.add(sessionItem);
-                } else {
-                    // إنشاء عنصر جديد للسلة الجديدة
-                    CartItem newItem = new CartItem();
-                    newItem.setCart(userCart);
-                    newItem.setProductId(sessionItem.getProductId());
-                    newItem.setQuantity(finalQuantity);
-                    newItem.setUnitPrice(sessionItem.getUnitPrice());
-                    cartItemRepository.save(newItem);
-
-                    // حذف العنصر من السلة المؤقتة
-                    itemsToDelete.add(sessionItem);
-                }
-            }
-            // أبقاء السيشن في حال أنتهت صالحية التوكن
-            userCart.setSessionId(sessionCart.getSessionId());
-            cartRepository.save(userCart);
-            cartItemRepository.deleteAll(itemsToDelete);
-            cartItemRepository.flush();
-            // حذف السلة المؤقتة إذا فارغة الآن
-            if (cartItemRepository.findByCart(sessionCart).isEmpty()) {
-                cartRepository.delete(sessionCart);
-            }
+            mergeItems(sessionCart, userCart, email);
         }
         log.info("Merged session cart into customer cart for email='{}', sessionId='{}'", email, sessionId);
         logCacheEvict(sessionId);
     }
 
+    /**
+     * Mengenbasiertes Zusammenführen: Positionen, die der Kunde noch nicht hat, werden mit einem
+     * einzigen UPDATE in seinen Warenkorb verschoben. Nur geänderte Mengen (doppelte Produkte bzw.
+     * Kürzung auf den Bestand) werden als JDBC-Batch geschrieben, der Rest des Session-Warenkorbs
+     * wird per Bulk-DELETE entfernt.
+     */
+    private void mergeItems(Cart sessionCart, Cart userCart, String email) {
+        List<CartItem> items = cartItemRepository.findByCartIdIn(List.of(userCart.getId(), sessionCart.getId()));
+        Map<Long, CartItem> userItemsMap = new HashMap<>();
+        List<CartItem> sessionItems = new ArrayList<>();
+        for (CartItem item : items) {
+            if (item.getCart().getId().equals(userCart.getId())) {
+                userItemsMap.put(item.getProductId(), item);
+            } else {
+                sessionItems.add(item);
+            }
+        }
+
+        Map<Long, Integer> stockByProduct = inventoryQueryService.getAvailableStock(
+                sessionItems.stream().map(CartItem::getProductId).toList());
+        List<Long> productIdsToMove = new ArrayList<>();
+        for (CartItem sessionItem : sessionItems) {
+            CartItem userItem = userItemsMap.get(sessionItem.getProductId());
+            int availableStock = stockByProduct.getOrDefault(sessionItem.getProductId(), 0);
+            int desiredQuantity = sessionItem.getQuantity();
+            if (userItem != null) {
+                desiredQuantity += userItem.getQuantity();
+            }
+            if (desiredQuantity > availableStock) {
+                log.warn("Insufficient stock for productId={}, requested={}, available={}, email={}",
+                        sessionItem.getProductId(), desiredQuantity, availableStock, email);
+            }
+            int finalQuantity = Math.min(desiredQuantity, availableStock);
+            if (userItem != null) {
+                // دمج الكميات
+                userItem.setQuantity(finalQuantity);
+            } else {
+                sessionItem.setQuantity(finalQuantity);
+                productIdsToMove.add(sessionItem.getProductId());
+            }
+        }
+        // أبقاء السيشن في حال أنتهت صالحية التوكن
+        userCart.setSessionId(sessionCart.getSessionId());
+
+        if (!productIdsToMove.isEmpty()) {
+            cartItemRepository.moveItems(sessionCart.getId(), userCart.getId(), productIdsToMove);
+        }
+        // Übrig sind nur noch bereits zusammengeführte Positionen; danach den leeren Session-Warenkorb löschen
+        cartItemRepository.deleteByCartIdInBulk(sessionCart.getId());
+        cartRepository.deleteByIdInBulk(sessionCart.getId());
+        log.info("Merged {} session cart items ({} moved) into cartId={}", sessionItems.size(), productIdsToMove.size(), userCart.getId());
+    }
+
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = "cart", allEntries = true)})
     public void updateCartStatus(Long cartId, CartStatus newStatus) {
         Cart cart = cartRepository.findById(cartId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart not found with id: " + cartId));
@@ -267,7 +283,28 @@ public class CartServiceImpl implements CartService {
         cart.setStatus(newStatus);
         cartRepository.save(cart);
         log.info("Updated cart status to {} for cartId={}", newStatus, cartId);
-        log.info("Cache entries evicted: 'cart' (allEntries)");
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Erst nach dem Commit räumen, sonst kann ein paralleler Request den alten Stand neu cachen
+            outboxService.enqueue(OutboxEventType.CART_CACHE_EVICTION, cartId, cart.getSessionId());
+        } else {
+            evictCartCache(cartId, cart.getSessionId());
+        }
+    }
+
+    @Override
+    public void evictCartCache(Long cartId, String sessionId) {
+        Cache cache = cacheManager.getCache("cart");
+        if (cache == null) {
+            return;
+        }
+        Set<String> sessionIds = new HashSet<>(cartCacheIndex.removeAll(cartId));
+        if (sessionId != null) {
+            sessionIds.add(sessionId);
+        }
+        sessionIds.forEach(id -> {
+            cache.evict("session:" + id);
+            logCacheEvict(id);
+        });
     }
 
     @Override
@@ -277,19 +314,13 @@ public class CartServiceImpl implements CartService {
 
 
     private Cart findActiveCartOrNull(String email, String sessionId) {
-        if (email != null && !email.isBlank()) {
-            Optional<Customer> customerOpt = customerRepository.findByEmail(email);
-            if (customerOpt.isPresent()) {
-                Optional<Cart> cartOpt = cartRepository.findByCustomerAndStatus(customerOpt.get(), CartStatus.ACTIVE);
-                if (cartOpt.isPresent()) return cartOpt.get();
-            }
-        }
-
-        if (sessionId != null && !sessionId.isBlank()) {
-            return cartRepository.findBySessionIdAndStatus(sessionId, CartStatus.ACTIVE).orElse(null);
+        String normalizedEmail = email != null && !email.isBlank() ? email : null;
+        String normalizedSessionId = sessionId != null && !sessionId.isBlank() ? sessionId : null;
+        if (normalizedEmail == null && normalizedSessionId == null) {
+            return null;
         }
-
-        return null;
+        // Warenkorb des Kunden hat Vorrang vor dem Session-Warenkorb
+        return cartRepository.findActiveCart(normalizedEmail, normalizedSessionId).orElse(null);
     }
 
 
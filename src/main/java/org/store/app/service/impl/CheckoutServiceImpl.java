@@ -1,14 +1,18 @@
 package org.store.app.service.impl;
 
+import com.stripe.exception.ApiConnectionException;
 import com.stripe.exception.StripeException;
 import com.stripe.model.checkout.Session;
+import com.stripe.net.RequestOptions;
 import com.stripe.param.checkout.SessionCreateParams;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.store.app.enums.OrderStatus;
+import org.store.app.enums.PaymentStatus;
 import org.store.app.exception.ResourceNotFoundException;
 import org.store.app.model.Customer;
 import org.store.app.model.Order;
@@ -19,22 +23,105 @@ import org.store.app.service.CheckoutService;
 import org.store.app.service.PaymentService;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Legt Stripe-Checkout-Sessions an. Die Prüfung der Bestellung und die offene Zahlung laufen in einer kurzen
+ * Transaktion auf dem Request-Thread, der Aufruf bei Stripe danach auf dem {@code stripeCheckoutExecutor}
+ * mit Timeout. Der Idempotency-Key je Zahlung sorgt dafür, dass ein wiederholter Aufruf nach Timeout
+ * dieselbe Session liefert statt einer zweiten.
+ * <p>
+ * Eine Zahlung ohne Session wird nur innerhalb von {@code pending-reuse-window} weiterverwendet; danach und nach
+ * einem Fehler von Stripe gibt es eine neue Zahlung mit neuem Key, da Stripe für denselben Key das gespeicherte
+ * Ergebnis, auch einen Fehler, erneut liefert. Die Zeilensperre auf der Bestellung in {@link #prepare} sorgt dafür,
+ * dass parallele Klicks nicht beide eine neue Zahlung anlegen.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class CheckoutServiceImpl implements CheckoutService {
 
-    @Value("${domain}")
-    private String domain;
+    // تمكين الدفع بواسطة بطاقة الائتمان، يشمل أيضاً Apple Pay و Google Pay تلقائياً
+    private static final List<SessionCreateParams.PaymentMethodType> PAYMENT_METHOD_TYPES = List.of(
+            SessionCreateParams.PaymentMethodType.CARD,
+            SessionCreateParams.PaymentMethodType.AMAZON_PAY,
+            SessionCreateParams.PaymentMethodType.SEPA_DEBIT,
+            SessionCreateParams.PaymentMethodType.PAYPAL,
+            SessionCreateParams.PaymentMethodType.SOFORT,
+            SessionCreateParams.PaymentMethodType.KLARNA,
+            SessionCreateParams.PaymentMethodType.GIROPAY
+    );
 
     private final OrderRepository orderRepository;
     private final PaymentService paymentService;
+    private final Executor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final String successUrl;
+    private final String cancelUrlPrefix;
+
+    @Value("${app.stripe.checkout.timeout:PT10S}")
+    private Duration timeout;
+
+    // Etwas länger als der Timeout der Anfrage; gibt nur den Worker-Thread frei
+    @Value("${app.stripe.checkout.http-timeout:PT15S}")
+    private Duration httpTimeout;
+
+    @Value("${app.stripe.checkout.reuse-margin:PT5M}")
+    private Duration reuseMargin;
+
+    // Muss länger als http-timeout sein, sonst bekommt ein noch laufender Aufruf eine zweite Session daneben
+    @Value("${app.stripe.checkout.pending-reuse-window:PT1M}")
+    private Duration pendingReuseWindow;
+
+    public CheckoutServiceImpl(OrderRepository orderRepository,
+                               PaymentService paymentService,
+                               @Qualifier("stripeCheckoutExecutor") Executor executor,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${domain}") String domain) {
+        this.orderRepository = orderRepository;
+        this.paymentService = paymentService;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.successUrl = domain + "/payment-success?session_id={CHECKOUT_SESSION_ID}";
+        this.cancelUrlPrefix = domain + "/payment-cancel?orderId=";
+    }
 
     @Override
-    @Transactional
-    public Session createCheckoutSession(Long orderId, String currency, CustomUserDetails userDetails) throws StripeException {
-        Order order = orderRepository.findById(orderId)
+    public CompletableFuture<String> createCheckoutSession(Long orderId, String currency, CustomUserDetails userDetails) {
+        CheckoutRequest request = transactionTemplate.execute(status -> prepare(orderId, userDetails));
+        if (request.sessionUrl() != null) {
+            log.info("Reusing Stripe session for Order ID: {}, Payment ID: {}", orderId, request.paymentId());
+            return CompletableFuture.completedFuture(request.sessionUrl());
+        }
+
+        SessionCreateParams params = buildParams(request, currency);
+        RequestOptions options = RequestOptions.builder()
+                .setIdempotencyKey("checkout-session-" + request.paymentId())
+                .setConnectTimeout((int) httpTimeout.toMillis())
+                .setReadTimeout((int) httpTimeout.toMillis())
+                .build();
+
+        log.info("Creating Stripe session for Order ID: {}, Amount: {}, Currency: {}", orderId, request.totalAmount(), currency);
+        return CompletableFuture.supplyAsync(() -> createSession(params, options, request), executor)
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(session -> {
+                    LocalDateTime expiresAt = session.getExpiresAt() != null
+                            ? LocalDateTime.ofInstant(Instant.ofEpochSecond(session.getExpiresAt()), ZoneId.systemDefault())
+                            : null;
+                    paymentService.attachCheckoutSession(request.paymentId(), session.getId(), session.getUrl(), expiresAt);
+                    return session.getUrl();
+                });
+    }
+
+    private CheckoutRequest prepare(Long orderId, CustomUserDetails userDetails) {
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order with ID " + orderId + " not found"));
 
         Customer customer = order.getCustomer();
@@ -50,28 +137,33 @@ public class CheckoutServiceImpl implements CheckoutService {
         if (totalAmount == null || totalAmount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Order amount must be greater than zero");
         }
-        Payment payment = paymentService.createPendingPayment(order, totalAmount, "stripe");
-        long amountInCents = totalAmount.multiply(BigDecimal.valueOf(100)).longValueExact();
 
-        log.info("Creating Stripe session for Order ID: {}, Amount: {}, Currency: {}", orderId, totalAmount, currency);
+        // Offene Session nur wiederverwenden, wenn sie nicht kurz vor dem Ablauf steht
+        LocalDateTime now = LocalDateTime.now();
+        Payment payment = paymentService.findReusablePayment(orderId, now.plus(reuseMargin), now.minus(pendingReuseWindow))
+                .orElseGet(() -> paymentService.createPendingPayment(order, totalAmount, "stripe"));
+        return new CheckoutRequest(orderId, customer.getId(), payment.getId(), totalAmount, userDetails.getEmail(),
+                payment.getCheckoutSessionUrl());
+    }
 
-        SessionCreateParams params = SessionCreateParams.builder()
+    private SessionCreateParams buildParams(CheckoutRequest request, String currency) {
+        String orderId = request.orderId().toString();
+        String paymentId = request.paymentId().toString();
+        long amountInCents = request.totalAmount().multiply(BigDecimal.valueOf(100)).longValueExact();
+        return SessionCreateParams.builder()
                 .setMode(SessionCreateParams.Mode.PAYMENT)
-                // تمكين الدفع بواسطة بطاقة الائتمان، يشمل أيضاً Apple Pay و Google Pay تلقائياً
-                .addPaymentMethodType(SessionCreateParams.PaymentMethodType.CARD)
-                .addPaymentMethodType(SessionCreateParams.PaymentMethodType.AMAZON_PAY)
-                .addPaymentMethodType(SessionCreateParams.PaymentMethodType.SEPA_DEBIT)
-                .addPaymentMethodType(SessionCreateParams.PaymentMethodType.PAYPAL)
-                .addPaymentMethodType(SessionCreateParams.PaymentMethodType.SOFORT)
-                .addPaymentMethodType(SessionCreateParams.PaymentMethodType.KLARNA)
-                .addPaymentMethodType(SessionCreateParams.PaymentMethodType.GIROPAY)
-                .setSuccessUrl(domain + "/payment-success?session_id={CHECKOUT_SESSION_ID}")
-                .setCancelUrl(domain + "/payment-cancel?orderId=" + orderId)
-                .setClientReferenceId(orderId.toString())
-                .setCustomerEmail(userDetails.getEmail())
-                .putMetadata("order_id", orderId.toString())
-                .putMetadata("customer_id", customer.getId().toString())
-                .putMetadata("payment_id", payment.getId().toString())
+                .addAllPaymentMethodType(PAYMENT_METHOD_TYPES)
+                .setSuccessUrl(successUrl)
+                .setCancelUrl(cancelUrlPrefix + orderId)
+                .setClientReferenceId(orderId)
+                .setCustomerEmail(request.email())
+                .putMetadata("order_id", orderId)
+                .putMetadata("customer_id", request.customerId().toString())
+                .putMetadata("payment_id", paymentId)
+                .setPaymentIntentData(SessionCreateParams.PaymentIntentData.builder()
+                        .putMetadata("order_id", orderId)
+                        .putMetadata("payment_id", paymentId)
+                        .build())
                 .addLineItem(SessionCreateParams.LineItem.builder()
                         .setQuantity(1L)
                         .setPriceData(SessionCreateParams.LineItem.PriceData.builder()
@@ -83,14 +175,22 @@ public class CheckoutServiceImpl implements CheckoutService {
                                 .build())
                         .build())
                 .build();
+    }
 
+    private Session createSession(SessionCreateParams params, RequestOptions options, CheckoutRequest request) {
         try {
-            return Session.create(params);
+            return Session.create(params, options);
         } catch (StripeException e) {
-            log.error("Stripe session creation failed for Order ID {}: {}", orderId, e.getMessage(), e);
-            throw e;
+            log.error("Stripe session creation failed for Order ID {}: {}", request.orderId(), e.getMessage(), e);
+            // Bei Verbindungsfehlern ist offen, ob Stripe die Anfrage verarbeitet hat; dann denselben Key wiederholen
+            if (!(e instanceof ApiConnectionException)) {
+                paymentService.updatePaymentStatus(request.paymentId(), PaymentStatus.FAILED, null, e.getMessage());
+            }
+            throw new CompletionException(e);
         }
     }
 
-
+    private record CheckoutRequest(Long orderId, Long customerId, Long paymentId, BigDecimal totalAmount,
+                                   String email, String sessionUrl) {
+    }
 }
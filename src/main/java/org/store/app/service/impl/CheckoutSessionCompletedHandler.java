@@ -5,15 +5,21 @@ import com.stripe.model.checkout.Session;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.store.app.enums.CartStatus;
 import org.store.app.enums.OrderStatus;
+import org.store.app.enums.OutboxEventType;
 import org.store.app.enums.PaymentStatus;
 import org.store.app.model.Order;
 import org.store.app.service.CartService;
 import org.store.app.service.OrderService;
+import org.store.app.service.OutboxService;
 import org.store.app.service.PaymentService;
+import org.store.app.service.StockReservationService;
 import org.store.app.service.StripeEventHandlerService;
 
+import java.util.Set;
+
 @RequiredArgsConstructor
 @Service
 @Slf4j
@@ -22,13 +28,20 @@ public class CheckoutSessionCompletedHandler implements StripeEventHandlerServic
     private final OrderService orderService;
     private final CartService cartService;
     private final PaymentService paymentService;
+    private final StockReservationService stockReservationService;
+    private final OutboxService outboxService;
 
     @Override
-    public boolean canHandle(String eventType) {
-        return "checkout.session.completed".equals(eventType);
+    public Set<String> eventTypes() {
+        return Set.of("checkout.session.completed");
     }
 
+    /**
+     * Bestellung, Reservierung, Zahlung und Warenkorb werden in einer Transaktion aktualisiert.
+     * Bestätigungs-E-Mail und Cache-Invalidierung laufen danach über 'outbox_events'.
+     */
     @Override
+    @Transactional
     public void handle(Event event) {
         Session session = extractSession(event);
         if (session == null) return;
@@ -36,10 +49,10 @@ public class CheckoutSessionCompletedHandler implements StripeEventHandlerServic
         StripeSessionData data = extractSessionData(session);
 
         Order order = orderService.updateOrderStatus(data.orderId(), OrderStatus.PROCESSING, data.customerId());
+        stockReservationService.commit(data.orderId());
         paymentService.updatePaymentStatus(data.paymentId(), PaymentStatus.COMPLETED, data.paymentIntent(), "Payment completed successfully");
-        orderService.sendOrderConfirmationEmail(data.orderId(), "EUR");
         cartService.updateCartStatus(order.getCartId(), CartStatus.CONVERTED);
-
+        outboxService.enqueue(OutboxEventType.ORDER_CONFIRMATION_EMAIL, data.orderId(), "EUR");
 
         log.info("Handled checkout.session.completed for order: {}", data.orderId());
     }
@@ -5,12 +5,15 @@ import com.stripe.model.checkout.Session;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.store.app.enums.OrderStatus;
 import org.store.app.enums.PaymentStatus;
 import org.store.app.service.OrderService;
 import org.store.app.service.PaymentService;
 import org.store.app.service.StripeEventHandlerService;
 
+import java.util.Set;
+
 @RequiredArgsConstructor
 @Service
 @Slf4j
@@ -20,17 +23,19 @@ public class CheckoutSessionExpiredHandler implements StripeEventHandlerService
     private final PaymentService paymentService;
 
     @Override
-    public boolean canHandle(String eventType) {
-        return "checkout.session.expired".equals(eventType);
+    public Set<String> eventTypes() {
+        return Set.of("checkout.session.expired");
     }
 
     @Override
+    @Transactional
     public void handle(Event event) {
         Session session = extractSession(event);
         if (session == null) return;
 
         StripeSessionData data = extractSessionData(session);
 
+        // Die Stornierung gibt die Reservierung der Bestellung mit frei
         orderService.updateOrderStatus(data.orderId(), OrderStatus.CANCELLED, data.customerId());
         paymentService.updatePaymentStatus(data.paymentId(), PaymentStatus.FAILED, null, "Payment session expired");
 
@@ -12,7 +12,9 @@ import org.store.app.model.Customer;
 import org.store.app.model.Role;
 import org.store.app.repository.CustomerRepository;
 import org.store.app.repository.RoleRepository;
+import org.store.app.security.userdetails.UserDetailsCache;
 import org.store.app.service.CustomerService;
+import org.store.app.service.TokenVersionService;
 
 import java.util.Optional;
 import java.util.Set;
@@ -26,6 +28,8 @@ public class CustomerServiceImpl implements CustomerService {
     private final RoleRepository roleRepository;
     private final CustomerMapper customerMapper;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionService tokenVersionService;
+    private final UserDetailsCache userDetailsCache;
 
     @Override
     public CustomerDTO createCustomer(CustomerDTO customerDTO) {
@@ -56,7 +60,10 @@ public class CustomerServiceImpl implements CustomerService {
         log.info("Attempting to update password for customer with email '{}'", email);
         Customer customer = customerRepository.findByEmail(email).orElseThrow(() -> new ResourceNotFoundException("Customer with email " + email + " not found"));
         customer.setPassword(passwordEncoder.encode(newPassword));
+        customer.setTokenVersion(customer.getTokenVersion() + 1);
         customerRepository.save(customer);
+        tokenVersionService.evict(customer.getId());
+        userDetailsCache.evict(customer.getEmail());
         log.info("Password updated successfully for customer '{}'", email);
     }
 
@@ -69,8 +76,11 @@ public class CustomerServiceImpl implements CustomerService {
         customer.setPhone(phone);
         customer.setDialCode(dialCode);
         customer.setCountryCode(countryCode);
+        customer.setTokenVersion(customer.getTokenVersion() + 1);
 
         customerRepository.save(customer);
+        tokenVersionService.evict(customerId);
+        userDetailsCache.evict(customer.getEmail());
     }
 
     @Override
@@ -79,5 +89,6 @@ public class CustomerServiceImpl implements CustomerService {
                 new ResourceNotFoundException("Customer not found"));
         customer.setEmailVerified(true);
         customerRepository.save(customer);
+        userDetailsCache.evict(customer.getEmail());
     }
 }
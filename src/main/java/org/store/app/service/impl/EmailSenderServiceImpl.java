@@ -1,52 +1,47 @@
 package org.store.app.service.impl;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
-import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.store.app.model.OutboundEmail;
+import org.store.app.repository.OutboundEmailRepository;
 import org.store.app.service.EmailService;
 
-@Data
+import java.time.LocalDateTime;
+
+/**
+ * Legt E-Mails nur in der Tabelle 'email_outbox' ab; der Versand per SMTP erfolgt im Hintergrund
+ * durch den {@link org.store.app.scheduling.email.EmailOutboxDispatcher}. Läuft bereits eine
+ * Transaktion, wird die E-Mail nur mit ihr zusammen gespeichert.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class EmailSenderServiceImpl implements EmailService {
 
-    @Value("${spring.mail.username}")
-    private String mailUser;
-
-    private final JavaMailSender mailSender;
+    private final OutboundEmailRepository outboundEmailRepository;
 
     @Override
+    @Transactional
     public void sendSimpleMail(String to, String subject, String text) {
-        SimpleMailMessage message = new SimpleMailMessage();
-
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(text);
-        message.setFrom(mailUser);
-        log.info("Sending email from {} to {} ", mailUser, to);
-        mailSender.send(message);
+        enqueue(to, subject, text, false);
     }
 
     @Override
+    @Transactional
     public void sendHtmlMail(String to, String subject, String htmlBody) {
-        MimeMessage message = mailSender.createMimeMessage();
-        try {
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-            helper.setTo(to);
-            helper.setFrom(mailUser);
-            helper.setSubject(subject);
-            helper.setText(htmlBody, true);
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            throw new RuntimeException("Failed to send email", e);
-        }
+        enqueue(to, subject, htmlBody, true);
+    }
+
+    private void enqueue(String to, String subject, String body, boolean html) {
+        OutboundEmail email = new OutboundEmail();
+        email.setRecipient(to);
+        email.setSubject(subject);
+        email.setBody(body);
+        email.setHtml(html);
+        email.setNextAttemptAt(LocalDateTime.now());
+        outboundEmailRepository.save(email);
+        log.info("Queued email to {} (id={})", to, email.getId());
     }
 }
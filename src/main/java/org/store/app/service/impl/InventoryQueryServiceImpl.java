@@ -2,21 +2,206 @@ package org.store.app.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.store.app.service.InventoryQueryService;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Bestandsabfragen mit Redis-Zählern je Produkt ({@code stock:available:<productId>}).
+ * Verfügbar ist der Bestand aus der Tabelle 'stock' abzüglich offener Reservierungen. Fehlende Zähler
+ * werden aus der Datenbank geladen; Reservierungen verändern die Zähler direkt (Write-Through),
+ * {@link #reconcileCachedStock()} gleicht sie periodisch mit den Tabellen ab. Ist Redis nicht erreichbar, wird direkt aus der Datenbank gelesen.
+ * <p>
+ * Der Abgleich schreibt nur per Compare-and-Set: Hat ein Write-Through den Zähler zwischen dem Lesen des Zählers
+ * und der Datenbankabfrage verändert, bleibt der Zähler stehen und wird beim nächsten Lauf geprüft.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class InventoryQueryServiceImpl implements InventoryQueryService {
 
+    private static final String KEY_PREFIX = "stock:available:";
+    private static final String SUM_SQL = "SELECT COALESCE(SUM(quantity), 0) FROM stock WHERE product_id = ?";
+    private static final String RESERVED_SQL =
+            "SELECT COALESCE(SUM(quantity), 0) FROM stock_reservations WHERE product_id = ? AND status = 'RESERVED'";
+    private static final String SUM_BY_PRODUCT_SQL =
+            "SELECT product_id, COALESCE(SUM(quantity), 0) AS total FROM stock WHERE product_id IN (%s) GROUP BY product_id";
+    private static final String RESERVED_BY_PRODUCT_SQL =
+            "SELECT product_id, COALESCE(SUM(quantity), 0) AS total FROM stock_reservations " +
+            "WHERE status = 'RESERVED' AND product_id IN (%s) GROUP BY product_id";
+
+    // Nur vorhandene Zähler ändern; fehlende werden beim nächsten Lesen aus der Datenbank geladen
+    private static final RedisScript<Long> INCREMENT_IF_PRESENT = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return redis.call('INCRBY', KEYS[1], ARGV[1])
+            end
+            return nil
+            """, Long.class);
+
+    // Überschreibt den Zähler nur, wenn er seit dem Lesen unverändert ist
+    private static final RedisScript<Long> SET_IF_UNCHANGED = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
     private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${app.stock.cache-ttl:PT10M}")
+    private Duration cacheTtl;
+
+    // Obergrenze der IN-Liste pro Abfrage
+    @Value("${app.stock.query-chunk-size:500}")
+    private int queryChunkSize;
 
     @Override
     public int getAvailableStock(Long productId) {
-        String sql = "SELECT COALESCE(SUM(quantity), 0) FROM stock WHERE product_id = ?";
-        Integer quantity = jdbcTemplate.queryForObject(sql, Integer.class, productId);
-        return quantity != null ? quantity : 0;
+        Integer cached = readCounter(productId);
+        if (cached != null) {
+            return Math.max(0, cached);
+        }
+        Integer quantity = jdbcTemplate.queryForObject(SUM_SQL, Integer.class, productId);
+        Integer reserved = jdbcTemplate.queryForObject(RESERVED_SQL, Integer.class, productId);
+        int stock = Math.max(0, (quantity != null ? quantity : 0) - (reserved != null ? reserved : 0));
+        writeCounters(Map.of(productId, stock));
+        return stock;
+    }
+
+    @Override
+    public Map<Long, Integer> getAvailableStock(Collection<Long> productIds) {
+        List<Long> distinctIds = productIds.stream().distinct().toList();
+        Map<Long, Integer> result = new HashMap<>(distinctIds.size() * 2);
+        if (distinctIds.isEmpty()) {
+            return result;
+        }
+        List<Long> missing = new ArrayList<>();
+        List<String> cached = readCounters(distinctIds);
+        for (int i = 0; i < distinctIds.size(); i++) {
+            String value = cached != null ? cached.get(i) : null;
+            if (value != null) {
+                result.put(distinctIds.get(i), Math.max(0, Integer.parseInt(value)));
+            } else {
+                missing.add(distinctIds.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<Long, Integer> loaded = loadFromDatabase(missing);
+            writeCounters(loaded);
+            result.putAll(loaded);
+        }
+        return result;
+    }
+
+    @Override
+    public void adjustCachedStock(Map<Long, Integer> deltas) {
+        deltas.forEach((productId, delta) -> {
+            try {
+                redisTemplate.execute(INCREMENT_IF_PRESENT, List.of(KEY_PREFIX + productId), String.valueOf(delta));
+            } catch (Exception e) {
+                // Der Zähler wird spätestens beim nächsten Abgleich korrigiert
+                log.warn("Failed to adjust stock counter for productId={}: {}", productId, e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public int reconcileCachedStock() {
+        List<Long> productIds = new ArrayList<>();
+        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions()
+                .match(KEY_PREFIX + "*")
+                .count(1000)
+                .build())) {
+            while (cursor.hasNext()) {
+                productIds.add(Long.parseLong(cursor.next().substring(KEY_PREFIX.length())));
+            }
+        }
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+        // Zähler vor der Datenbankabfrage lesen; nur diese Werte dürfen ersetzt werden
+        List<String> cached = redisTemplate.opsForValue().multiGet(productIds.stream().map(id -> KEY_PREFIX + id).toList());
+        Map<Long, Integer> stock = loadFromDatabase(productIds);
+        String ttlMillis = String.valueOf(cacheTtl.toMillis());
+        for (int i = 0; i < productIds.size(); i++) {
+            Long productId = productIds.get(i);
+            String expected = cached != null ? cached.get(i) : null;
+            String actual = String.valueOf(stock.get(productId));
+            if (expected == null || expected.equals(actual)) {
+                continue;
+            }
+            Long replaced = redisTemplate.execute(SET_IF_UNCHANGED, List.of(KEY_PREFIX + productId), expected, actual, ttlMillis);
+            if (replaced == null || replaced == 0) {
+                log.debug("Stock counter for productId={} changed during reconciliation, skipping", productId);
+            }
+        }
+        return productIds.size();
+    }
+
+    private Map<Long, Integer> loadFromDatabase(List<Long> productIds) {
+        Map<Long, Integer> result = new HashMap<>(productIds.size() * 2);
+        for (int from = 0; from < productIds.size(); from += queryChunkSize) {
+            List<Long> chunk = productIds.subList(from, Math.min(from + queryChunkSize, productIds.size()));
+            String placeholders = chunk.stream().map(id -> "?").collect(Collectors.joining(","));
+            jdbcTemplate.query(String.format(SUM_BY_PRODUCT_SQL, placeholders),
+                    rs -> {
+                        result.put(rs.getLong("product_id"), rs.getInt("total"));
+                    }, chunk.toArray());
+            jdbcTemplate.query(String.format(RESERVED_BY_PRODUCT_SQL, placeholders),
+                    rs -> {
+                        result.merge(rs.getLong("product_id"), -rs.getInt("total"), Integer::sum);
+                    }, chunk.toArray());
+        }
+        result.replaceAll((productId, available) -> Math.max(0, available));
+        // Produkte ohne Bestandszeilen haben keinen Bestand
+        productIds.forEach(productId -> result.putIfAbsent(productId, 0));
+        return result;
+    }
+
+    private Integer readCounter(Long productId) {
+        try {
+            String value = redisTemplate.opsForValue().get(KEY_PREFIX + productId);
+            return value != null ? Integer.valueOf(value) : null;
+        } catch (Exception e) {
+            log.warn("Failed to read stock counter for productId={}: {}", productId, e.getMessage());
+            return null;
+        }
+    }
+
+    private List<String> readCounters(List<Long> productIds) {
+        try {
+            return redisTemplate.opsForValue().multiGet(productIds.stream().map(id -> KEY_PREFIX + id).toList());
+        } catch (Exception e) {
+            log.warn("Failed to read stock counters for {} products: {}", productIds.size(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Schreibt fehlende Zähler mit TTL. Vorhandene Werte bleiben unangetastet, damit ein paralleles
+     * Write-Through nicht durch einen gerade gelesenen Datenbankwert überschrieben wird.
+     */
+    private void writeCounters(Map<Long, Integer> stock) {
+        try {
+            stock.forEach((productId, quantity) ->
+                    redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + productId, String.valueOf(quantity), cacheTtl));
+        } catch (Exception e) {
+            log.warn("Failed to cache stock counters for {} products: {}", stock.size(), e.getMessage());
+        }
     }
 }
@@ -0,0 +1,101 @@
+package org.store.app.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.store.app.service.CartService;
+import org.store.app.service.LoginMergeService;
+import org.store.app.service.WishlistService;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Führt Warenkorb und Wunschliste nach dem Login asynchron zusammen, damit die Login-Antwort nicht
+ * von der Größe des Gast-Warenkorbs abhängt. Laufende Merges werden je sessionId gehalten
+ * (Idempotenz-Schlüssel); Lesezugriffe derselben Session warten über {@link #awaitMerge} darauf.
+ */
+@Slf4j
+@Service
+public class LoginMergeServiceImpl implements LoginMergeService {
+
+    private final CartService cartService;
+    private final WishlistService wishlistService;
+    private final Executor executor;
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${app.login-merge.await-timeout:PT5S}")
+    private Duration awaitTimeout;
+
+    public LoginMergeServiceImpl(CartService cartService,
+                                 WishlistService wishlistService,
+                                 @Qualifier("loginMergeExecutor") Executor executor) {
+        this.cartService = cartService;
+        this.wishlistService = wishlistService;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Void> scheduleMerge(String email, String sessionId) {
+        CompletableFuture<Void> merge = new CompletableFuture<>();
+        CompletableFuture<Void> running = inFlight.putIfAbsent(sessionId, merge);
+        if (running != null) {
+            log.info("Merge for sessionId='{}' already in progress", sessionId);
+            return running;
+        }
+        executor.execute(() -> {
+            try {
+                mergeCart(email, sessionId);
+                mergeWishlist(email, sessionId);
+            } finally {
+                // Erst austragen, dann abschließen: wartende Leser finden danach keinen Merge mehr vor
+                inFlight.remove(sessionId, merge);
+                merge.complete(null);
+            }
+        });
+        return merge;
+    }
+
+    @Override
+    public void awaitMerge(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        CompletableFuture<Void> merge = inFlight.get(sessionId);
+        if (merge == null) {
+            return;
+        }
+        try {
+            merge.get(awaitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Merge for sessionId='{}' still running after {}, serving current state", sessionId, awaitTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Merge for sessionId='{}' failed: {}", sessionId, e.getMessage());
+        }
+    }
+
+    private void mergeCart(String email, String sessionId) {
+        try {
+            cartService.mergeCartOnLogin(email, sessionId);
+        } catch (Exception e) {
+            log.error("Failed to merge cart for email='{}', sessionId='{}'", email, sessionId, e);
+        }
+    }
+
+    private void mergeWishlist(String email, String sessionId) {
+        try {
+            wishlistService.mergeWishlistOnLogin(email, sessionId);
+        } catch (Exception e) {
+            log.error("Failed to merge wishlist for email='{}', sessionId='{}'", email, sessionId, e);
+        }
+    }
+}
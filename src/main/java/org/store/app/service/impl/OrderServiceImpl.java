@@ -2,17 +2,19 @@ package org.store.app.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.store.app.common.ValueWrapper;
+import org.store.app.common.OrderCursor;
+import org.store.app.common.cache.OrderCacheVersions;
 import org.store.app.dto.*;
 import org.store.app.enums.AddressType;
 import org.store.app.enums.OrderStatus;
+import org.store.app.enums.PaymentStatus;
 import org.store.app.exception.ResourceNotFoundException;
 import org.store.app.mapper.OrderItemMapper;
 import org.store.app.mapper.OrderMapper;
@@ -20,7 +22,6 @@ import org.store.app.model.Customer;
 import org.store.app.model.CustomerAddress;
 import org.store.app.model.Order;
 import org.store.app.model.OrderItem;
-import org.store.app.projection.ProductInfoProjection;
 import org.store.app.repository.CustomerAddressRepository;
 import org.store.app.repository.CustomerRepository;
 import org.store.app.repository.OrderRepository;
@@ -28,9 +29,14 @@ import org.store.app.repository.ProductReviewRepository;
 import org.store.app.service.CartService;
 import org.store.app.service.CustomerAddressService;
 import org.store.app.service.EmailService;
+import org.store.app.service.InventoryQueryService;
 import org.store.app.service.OrderService;
+import org.store.app.service.ProductCatalogSnapshot;
+import org.store.app.service.StockReservationService;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -42,6 +48,8 @@ import java.util.stream.Collectors;
 @Slf4j
 public class OrderServiceImpl implements OrderService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
     private final CustomerRepository customerRepository;
@@ -50,15 +58,36 @@ public class OrderServiceImpl implements OrderService {
     private final EmailService emailService;
     private final CartService cartService;
     private final OrderItemMapper orderItemMapper;
-    private final CacheManager cacheManager;
     private final ProductReviewRepository reviewRepository;
+    private final ProductCatalogSnapshot productCatalog;
+    private final InventoryQueryService inventoryQueryService;
+    private final StockReservationService stockReservationService;
+    private final OrderCacheVersions orderCacheVersions;
 
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "orders", key = "#customerId + '-' + #status")
-    public ValueWrapper<List<OrderDTO>> getOrdersByCustomerAndStatus(Long customerId, OrderStatus status) {
-        List<Order> orders = orderRepository.findByCustomerIdAndStatus(customerId, status);
+    @Cacheable(value = "orders",
+            key = "#customerId + '-v' + @orderCacheVersions.current(#customerId) + '-' + #status + '-' + #size + '-' + (#cursor ?: 'first')")
+    public OrderPageDTO getOrdersByCustomerAndStatus(Long customerId, OrderStatus status, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // Eine Bestellung mehr laden, um zu erkennen, ob es eine weitere Seite gibt
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Long> ids;
+        if (cursor == null || cursor.isBlank()) {
+            ids = orderRepository.findPageIds(customerId, status, limit);
+        } else {
+            OrderCursor after = OrderCursor.decode(cursor);
+            ids = orderRepository.findPageIdsAfter(customerId, status, after.createdAt(), after.id(), limit);
+        }
+        boolean hasMore = ids.size() > size;
+        List<Long> pageIds = hasMore ? ids.subList(0, size) : ids;
+        if (pageIds.isEmpty()) {
+            return new OrderPageDTO(new ArrayList<>(), null);
+        }
+        List<Order> orders = orderRepository.findWithItemsAndAddressesByIdIn(pageIds);
 
         List<OrderDTO> ordersDTOS = orders.stream().map(orderMapper::toDto).toList();
 
@@ -66,12 +95,11 @@ public class OrderServiceImpl implements OrderService {
                 .flatMap(orderDTO -> orderDTO.getItems().stream())
                 .map(OrderItemDTO::getProductId).collect(Collectors.toSet());
 
-        Map<Long, ProductInfoDTO> productInfoMap = orderRepository.findProductInfosByIds(productIds)
+        Map<Long, ProductInfoDTO> productInfoMap = productCatalog.getProducts(productIds).values()
                 .stream()
                 .collect(Collectors.toMap(
-                        ProductInfoProjection::getProductId,
-                        p -> new ProductInfoDTO(p.getName(), p.getDescription(), p.getImageUrl()),
-                        (existing, replacement) -> existing));
+                        ProductCatalogSnapshot.ProductSummary::productId,
+                        p -> new ProductInfoDTO(p.name(), p.description(), p.imageUrl())));
 
         Set<Long> reviewedProductIds = reviewRepository.findProductIdsReviewedByCustomer(customerId);
 
@@ -87,20 +115,15 @@ public class OrderServiceImpl implements OrderService {
                 item.setCanReview(canReview);
             }
         }
+        Order last = orders.get(orders.size() - 1);
+        String nextCursor = hasMore ? new OrderCursor(last.getCreatedAt(), last.getId()).encode() : null;
         log.info("Found {} orders for customer id: {}", ordersDTOS.size(), customerId);
-        return new ValueWrapper<>(ordersDTOS);
+        return new OrderPageDTO(new ArrayList<>(ordersDTOS), nextCursor);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    @Caching(evict = {
-            @CacheEvict(value = "orders", key = "#customerId + '-PENDING'"),
-            @CacheEvict(value = "orders", key = "#customerId + '-PROCESSING'"),
-            @CacheEvict(value = "orders", key = "#customerId + '-SHIPPED'"),
-            @CacheEvict(value = "orders", key = "#customerId + '-DELIVERED'"),
-            @CacheEvict(value = "orders", key = "#customerId + '-CANCELLED'"),
-            @CacheEvict(value = "purchasedOrders", allEntries = true)
-    })
+    @CacheEvict(value = "purchasedOrders", allEntries = true)
     public OrderResponseCreatedDTO createOrder(Long billingAddressId, Long customerId) {
         log.info("Creating order for customerId: {}", customerId);
         OrderDTO orderDTO = new OrderDTO();
@@ -127,6 +150,10 @@ public class OrderServiceImpl implements OrderService {
         order.setStatus(OrderStatus.PENDING);
 
         Order savedOrder = orderRepository.save(order);
+        orderCacheVersions.bump(customerId);
+        // Die Vorprüfung oben ist nur ein Schnelltest; erst die Reservierung verhindert Überverkäufe
+        stockReservationService.reserve(savedOrder.getId(), orderItems.stream()
+                .collect(Collectors.toMap(OrderItem::getProductId, OrderItem::getQuantity, Integer::sum)));
         log.info("Order created successfully with ID: {}, Total amount: {}", savedOrder.getId(), savedOrder.getTotalAmount());
 
         return new OrderResponseCreatedDTO(savedOrder.getId(), savedOrder.getTotalAmount());
@@ -134,11 +161,14 @@ public class OrderServiceImpl implements OrderService {
 
     private void validateCartStock(CartDTO cart) {
         List<CartItemDTO> items = cart.getItemDTOS();
+        // Aktueller Bestand statt des evtl. veralteten totalStock aus dem gecachten Warenkorb
+        Map<Long, Integer> availableStock = inventoryQueryService.getAvailableStock(
+                items.stream().map(CartItemDTO::getProductId).toList());
         for (CartItemDTO item : items) {
             if (item.getQuantity() <= 0) {
                 throw new ResourceNotFoundException("Quantity for product with id: " + item.getProductId() + " is 0 or less. Cannot create order. Please update the cart and try again.");
             }
-            if (item.getProduct().getTotalStock() <= 0) {
+            if (availableStock.getOrDefault(item.getProductId(), 0) < item.getQuantity()) {
                 throw new ResourceNotFoundException("Product with id: " + item.getProductId() + " is out of stock. Cannot create order. Please update the cart and try again.");
             }
         }
@@ -146,14 +176,7 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "orders", key = "#customerId + '-PENDING'"),
-            @CacheEvict(value = "orders", key = "#customerId + '-PROCESSING'"),
-            @CacheEvict(value = "orders", key = "#customerId + '-SHIPPED'"),
-            @CacheEvict(value = "orders", key = "#customerId + '-DELIVERED'"),
-            @CacheEvict(value = "orders", key = "#customerId + '-CANCELLED'"),
-            @CacheEvict(value = "purchasedOrders", allEntries = true)
-    })
+    @CacheEvict(value = "purchasedOrders", allEntries = true)
     public Order updateOrderStatus(Long orderId, OrderStatus newStatus, Long customerId) {
         log.info("Updating order status. Order ID: {}, New Status: {}", orderId, newStatus);
         Order order = orderRepository.findById(orderId).orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
@@ -175,24 +198,35 @@ public class OrderServiceImpl implements OrderService {
 
         order.setStatus(newStatus);
         Order updated = orderRepository.save(order);
+        if (newStatus == OrderStatus.CANCELLED) {
+            // Offene Reservierungen in derselben Transaktion freigeben; bereits abgebuchte bleiben unberührt
+            stockReservationService.release(orderId);
+        }
         log.info("Order status updated successfully. Order ID: {}, Status: {}", orderId, newStatus);
 
-        String oldKey = orderOwnerId + "-" + oldStatus;
-        String newKey = orderOwnerId + "-" + newStatus;
+        // Alle gecachten Bestellseiten des Kunden werden mit der neuen Version ungültig
+        orderCacheVersions.bump(orderOwnerId);
+        return updated;
+    }
 
-        var cache = cacheManager.getCache("orders");
-        if (cache != null) {
-            cache.evict(oldKey);
-            cache.evict(newKey);
-            log.info("Cache evicted for keys: '{}' and '{}'", oldKey, newKey);
-        } else {
-            log.warn("Cache 'orders' not found. Skipped eviction for keys: '{}' and '{}'", oldKey, newKey);
+    @Override
+    @Transactional
+    public int cancelAbandonedOrders(LocalDateTime createdBefore, int limit) {
+        List<Order> orders = orderRepository.findAbandonedPendingOrders(OrderStatus.PENDING, PaymentStatus.PENDING,
+                createdBefore, LocalDateTime.now(), PageRequest.of(0, limit));
+        for (Order order : orders) {
+            order.setStatus(OrderStatus.CANCELLED);
+            stockReservationService.release(order.getId());
+            orderCacheVersions.bump(order.getCustomer().getId());
         }
-        return updated;
+        if (!orders.isEmpty()) {
+            log.info("Cancelled {} abandoned pending orders created before {}", orders.size(), createdBefore);
+        }
+        return orders.size();
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public void sendOrderConfirmationEmail(Long orderId, String currency) {
         Order order = orderRepository.findById(orderId).orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderId));
 
@@ -0,0 +1,33 @@
+package org.store.app.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.store.app.enums.OutboxEventType;
+import org.store.app.model.OutboxEvent;
+import org.store.app.repository.OutboxEventRepository;
+import org.store.app.service.OutboxService;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(OutboxEventType type, Long aggregateId, String payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        event.setAggregateId(aggregateId);
+        event.setPayload(payload);
+        event.setNextAttemptAt(LocalDateTime.now());
+        outboxEventRepository.save(event);
+        log.debug("Queued outbox event {} for aggregate {}", type, aggregateId);
+    }
+}
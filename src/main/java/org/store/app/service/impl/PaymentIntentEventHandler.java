@@ -0,0 +1,55 @@
+package org.store.app.service.impl;
+
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.store.app.service.PaymentService;
+import org.store.app.service.StripeEventHandlerService;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Protokolliert die Zahlungsversuche einer Checkout-Session an der Zahlung (Transaktions-ID, Fehlermeldung).
+ * Statuswechsel von Bestellung und Zahlung bleiben bei den checkout.session.*-Handlern.
+ */
+@RequiredArgsConstructor
+@Service
+@Slf4j
+public class PaymentIntentEventHandler implements StripeEventHandlerService {
+
+    private final PaymentService paymentService;
+
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of("payment_intent.succeeded", "payment_intent.payment_failed", "payment_intent.canceled");
+    }
+
+    @Override
+    @Transactional
+    public void handle(Event event) {
+        PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer().getObject().orElse(null);
+        if (paymentIntent == null) return;
+
+        Map<String, String> metadata = paymentIntent.getMetadata();
+        String paymentId = metadata != null ? metadata.get("payment_id") : null;
+        if (paymentId == null) {
+            log.info("Ignoring {} for payment intent {} without payment_id", event.getType(), paymentIntent.getId());
+            return;
+        }
+
+        String message = switch (event.getType()) {
+            case "payment_intent.succeeded" -> "Payment intent succeeded";
+            case "payment_intent.payment_failed" -> paymentIntent.getLastPaymentError() != null
+                    ? "Payment attempt failed: " + paymentIntent.getLastPaymentError().getMessage()
+                    : "Payment attempt failed";
+            default -> "Payment intent canceled: " + paymentIntent.getCancellationReason();
+        };
+        paymentService.recordPaymentAttempt(Long.valueOf(paymentId), paymentIntent.getId(), message);
+
+        log.info("Handled {} for payment: {}", event.getType(), paymentId);
+    }
+}
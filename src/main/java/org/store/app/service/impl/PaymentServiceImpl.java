@@ -2,6 +2,7 @@ package org.store.app.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.store.app.enums.PaymentStatus;
@@ -12,6 +13,8 @@ import org.store.app.repository.PaymentRepository;
 import org.store.app.service.PaymentService;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 @Service
 @Slf4j
@@ -46,4 +49,43 @@ public class PaymentServiceImpl implements PaymentService {
         paymentRepository.save(payment);
         log.info("Updated payment ID {} status to {}, transactionId: {}, responseMessage: {}", paymentId, status, transactionId, responseMessage);
     }
-}
\ No newline at end of file
+
+    @Transactional
+    @Override
+    public void recordPaymentAttempt(Long paymentId, String transactionId, String responseMessage) {
+        Payment payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Payment not found"));
+
+        if (transactionId != null) {
+            payment.setTransactionId(transactionId);
+        }
+        payment.setResponseMessage(responseMessage);
+
+        paymentRepository.save(payment);
+        log.info("Recorded payment attempt for payment ID {}, transactionId: {}, responseMessage: {}", paymentId, transactionId, responseMessage);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<Payment> findReusablePayment(Long orderId, LocalDateTime validUntil, LocalDateTime createdAfter) {
+        return paymentRepository.findLatestByOrderIdAndStatus(orderId, PaymentStatus.PENDING, PageRequest.of(0, 1)).stream()
+                .findFirst()
+                .filter(payment -> payment.getCheckoutSessionId() == null
+                        ? payment.getCreatedAt() != null && payment.getCreatedAt().isAfter(createdAfter)
+                        : payment.getCheckoutSessionExpiresAt() != null && payment.getCheckoutSessionExpiresAt().isAfter(validUntil));
+    }
+
+    @Transactional
+    @Override
+    public void attachCheckoutSession(Long paymentId, String sessionId, String url, LocalDateTime expiresAt) {
+        Payment payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Payment not found"));
+
+        payment.setCheckoutSessionId(sessionId);
+        payment.setCheckoutSessionUrl(url);
+        payment.setCheckoutSessionExpiresAt(expiresAt);
+
+        paymentRepository.save(payment);
+        log.info("Attached checkout session {} to payment ID {}, expires at {}", sessionId, paymentId, expiresAt);
+    }
+}
@@ -0,0 +1,176 @@
+package org.store.app.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.store.app.service.ProductCatalogSnapshot;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductCatalogSnapshotImpl implements ProductCatalogSnapshot {
+
+    private static final String SELECT_SUMMARY = """
+            SELECT product_id, name, description, image_url, selling_price, total_stock, updated_at
+            FROM product_summary
+            """;
+    // Überlappung beim Delta, damit spät committete Änderungen mit älterem updated_at nicht verloren gehen
+    private static final Duration DELTA_OVERLAP = Duration.ofSeconds(5);
+
+    private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> new Row(
+            new ProductSummary(
+                    rs.getLong("product_id"),
+                    rs.getString("name"),
+                    rs.getString("description"),
+                    rs.getString("image_url"),
+                    rs.getBigDecimal("selling_price"),
+                    rs.getLong("total_stock")),
+            rs.getTimestamp("updated_at"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Vollständiges Neuladen entfernt gelöschte Produkte, die über das Delta nicht sichtbar sind
+    @Value("${app.catalog.full-reload-interval:PT1H}")
+    private Duration fullReloadInterval;
+
+    private volatile Catalog catalog;
+    private Instant lastFullReload = Instant.MIN;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.catalog.refresh-interval:PT30S}",
+            initialDelayString = "${app.catalog.refresh-interval:PT30S}")
+    public synchronized void refresh() {
+        try {
+            Catalog current = catalog;
+            if (current == null || Instant.now().isAfter(lastFullReload.plus(fullReloadInterval))) {
+                List<Row> rows = jdbcTemplate.query(SELECT_SUMMARY, ROW_MAPPER);
+                catalog = Catalog.of(rows, null);
+                lastFullReload = Instant.now();
+                log.info("Product catalog snapshot loaded with {} products", rows.size());
+            } else if (current.maxUpdatedAt != null) {
+                Timestamp since = Timestamp.from(current.maxUpdatedAt.toInstant().minus(DELTA_OVERLAP));
+                List<Row> rows = jdbcTemplate.query(SELECT_SUMMARY + " WHERE updated_at >= ?", ROW_MAPPER, since);
+                if (!rows.isEmpty()) {
+                    catalog = Catalog.of(rows, current);
+                    log.debug("Product catalog snapshot refreshed with {} changed products", rows.size());
+                }
+            }
+        } catch (DataAccessException e) {
+            // Ohne Snapshot werden die Produktdaten bei Bedarf direkt gelesen
+            log.warn("Failed to refresh product catalog snapshot: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<Long, ProductSummary> getProducts(Collection<Long> productIds) {
+        Map<Long, ProductSummary> result = new HashMap<>(productIds.size() * 2);
+        List<Long> missing = new ArrayList<>();
+        Catalog current = catalog;
+        for (Long productId : productIds) {
+            ProductSummary summary = current != null ? current.get(productId) : null;
+            if (summary != null) {
+                result.put(productId, summary);
+            } else if (!result.containsKey(productId)) {
+                missing.add(productId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<Long> distinct = missing.stream().distinct().toList();
+            String placeholders = distinct.stream().map(id -> "?").collect(Collectors.joining(","));
+            jdbcTemplate.query(SELECT_SUMMARY + " WHERE product_id IN (" + placeholders + ")", ROW_MAPPER, distinct.toArray())
+                    .forEach(row -> result.put(row.summary.productId(), row.summary));
+            log.debug("Loaded {} products missing from catalog snapshot", distinct.size());
+        }
+        return result;
+    }
+
+    private record Row(ProductSummary summary, Timestamp updatedAt) {
+    }
+
+    /**
+     * Unveränderlicher Katalog: nach ID sortierte long-Keys mit paralleler Werteliste (Binärsuche, kein Boxing).
+     */
+    private static final class Catalog {
+
+        private final long[] ids;
+        private final ProductSummary[] values;
+        private final Timestamp maxUpdatedAt;
+
+        private Catalog(long[] ids, ProductSummary[] values, Timestamp maxUpdatedAt) {
+            this.ids = ids;
+            this.values = values;
+            this.maxUpdatedAt = maxUpdatedAt;
+        }
+
+        ProductSummary get(long productId) {
+            int index = Arrays.binarySearch(ids, productId);
+            return index >= 0 ? values[index] : null;
+        }
+
+        /**
+         * Baut einen neuen Katalog aus {@code rows}; mit {@code base} werden die Zeilen in den bestehenden Katalog gemischt.
+         */
+        static Catalog of(List<Row> rows, Catalog base) {
+            List<Row> sorted = new ArrayList<>(rows);
+            sorted.sort(Comparator.comparingLong(row -> row.summary.productId()));
+
+            long[] baseIds = base != null ? base.ids : new long[0];
+            ProductSummary[] baseValues = base != null ? base.values : new ProductSummary[0];
+            Timestamp maxUpdatedAt = base != null ? base.maxUpdatedAt : null;
+
+            long[] ids = new long[baseIds.length + sorted.size()];
+            ProductSummary[] values = new ProductSummary[ids.length];
+            int size = 0;
+            int i = 0;
+            int j = 0;
+            while (i < baseIds.length || j < sorted.size()) {
+                ProductSummary next;
+                if (j >= sorted.size() || (i < baseIds.length && baseIds[i] < sorted.get(j).summary.productId())) {
+                    next = baseValues[i++];
+                } else {
+                    Row row = sorted.get(j++);
+                    next = row.summary;
+                    if (row.updatedAt != null && (maxUpdatedAt == null || row.updatedAt.after(maxUpdatedAt))) {
+                        maxUpdatedAt = row.updatedAt;
+                    }
+                    // Geänderte Zeile ersetzt den bisherigen Eintrag
+                    if (i < baseIds.length && baseIds[i] == next.productId()) {
+                        i++;
+                    }
+                }
+                if (size > 0 && ids[size - 1] == next.productId()) {
+                    values[size - 1] = next;
+                } else {
+                    ids[size] = next.productId();
+                    values[size] = next;
+                    size++;
+                }
+            }
+            return new Catalog(Arrays.copyOf(ids, size), Arrays.copyOf(values, size), maxUpdatedAt);
+        }
+    }
+}
@@ -4,10 +4,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.store.app.common.ValueWrapper;
+import org.store.app.common.cache.OrderCacheVersions;
 import org.store.app.dto.ProductReviewDTO;
 import org.store.app.enums.OrderStatus;
 import org.store.app.exception.ResourceNotFoundException;
@@ -30,14 +30,12 @@ public class ProductServiceImpl implements ProductService {
     private final ProductReviewRepository reviewRepository;
     private final ProductReviewMapper reviewMapper;
     private final OrderService orderService;
+    private final OrderCacheVersions orderCacheVersions;
 
 
     @Override
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "productReviews", key = "#productId"),
-            @CacheEvict(value = "orders", key = "#customerId + '-DELIVERED'"),
-    })
+    @CacheEvict(value = "productReviews", key = "#productId")
     public void AddReview(Long customerId, Long productId, Double rating, String review) {
         log.info("Adding review for productId={} by customerId={}", productId, customerId);
 
@@ -72,6 +70,8 @@ public class ProductServiceImpl implements ProductService {
         reviewEntity.setRating(rating);
         reviewEntity.setReview(review);
         reviewRepository.save(reviewEntity);
+        // canReview in der Bestellhistorie ändert sich
+        orderCacheVersions.bump(customerId);
         log.info("Review saved for productId={} by customerId={}", productId, customerId);
     }
 
@@ -0,0 +1,151 @@
+package org.store.app.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.store.app.enums.ReservationStatus;
+import org.store.app.exception.ResourceNotFoundException;
+import org.store.app.model.StockReservation;
+import org.store.app.repository.StockReservationRepository;
+import org.store.app.service.InventoryQueryService;
+import org.store.app.service.StockReservationService;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reservierungen in der Tabelle 'stock_reservations'. Alle Operationen sperren zuerst die
+ * Bestandszeilen des Produkts ({@code SELECT ... FOR UPDATE}), daher können parallele Bestellungen
+ * dieselbe Einheit nicht doppelt reservieren. Produkte werden immer in aufsteigender ID-Reihenfolge
+ * gesperrt, um Deadlocks zwischen Bestellungen mit mehreren Produkten zu vermeiden.
+ * Auch die offenen Reservierungen werden sperrend gelesen: unter REPEATABLE READ sähe ein normales
+ * SELECT den Snapshot vom Anfang der Transaktion und damit nicht die Reservierungen, die andere
+ * Bestellungen während des Wartens auf die Sperre committet haben.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private static final String LOCK_STOCK_SQL = "SELECT id, quantity FROM stock WHERE product_id = ? ORDER BY id FOR UPDATE";
+    private static final String LOCK_RESERVED_SQL =
+            "SELECT quantity FROM stock_reservations WHERE product_id = ? AND status = ? FOR UPDATE";
+    private static final String DECREMENT_STOCK_SQL = "UPDATE stock SET quantity = quantity - ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockReservationRepository reservationRepository;
+    private final InventoryQueryService inventoryQueryService;
+
+    @Override
+    @Transactional
+    public void reserve(Long orderId, Map<Long, Integer> quantities) {
+        List<StockReservation> reservations = new ArrayList<>(quantities.size());
+        Map<Long, Integer> deltas = new HashMap<>(quantities.size() * 2);
+        for (Map.Entry<Long, Integer> entry : new TreeMap<>(quantities).entrySet()) {
+            Long productId = entry.getKey();
+            int quantity = entry.getValue();
+            long stock = lockStockRows(productId).stream().mapToLong(StockRow::quantity).sum();
+            long reserved = lockReservedQuantities(productId).stream().mapToLong(Long::longValue).sum();
+            if (stock - reserved < quantity) {
+                throw new ResourceNotFoundException("Product with id: " + productId + " is out of stock. Cannot create order. Please update the cart and try again.");
+            }
+            StockReservation reservation = new StockReservation();
+            reservation.setOrderId(orderId);
+            reservation.setProductId(productId);
+            reservation.setQuantity(quantity);
+            reservations.add(reservation);
+            deltas.put(productId, -quantity);
+        }
+        reservationRepository.saveAll(reservations);
+        adjustCachedStockAfterCommit(deltas);
+        log.info("Reserved stock for order {}: {}", orderId, quantities);
+    }
+
+    @Override
+    @Transactional
+    public void commit(Long orderId) {
+        List<StockReservation> reservations = findOpenReservations(orderId);
+        if (reservations.isEmpty()) {
+            log.info("No open stock reservations to commit for order {}", orderId);
+            return;
+        }
+        for (StockReservation reservation : reservations) {
+            int remaining = reservation.getQuantity();
+            for (StockRow row : lockStockRows(reservation.getProductId())) {
+                if (remaining == 0) {
+                    break;
+                }
+                int taken = (int) Math.min(remaining, Math.max(0, row.quantity()));
+                if (taken > 0) {
+                    jdbcTemplate.update(DECREMENT_STOCK_SQL, taken, row.id());
+                    remaining -= taken;
+                }
+            }
+            if (remaining > 0) {
+                // Bestand wurde außerhalb der Anwendung reduziert
+                log.warn("Stock for productId={} was short by {} when committing order {}", reservation.getProductId(), remaining, orderId);
+            }
+            reservation.setStatus(ReservationStatus.COMMITTED);
+        }
+        // Freier Bestand bleibt gleich: die Reservierung wird zum Abgang, die Zähler ändern sich nicht
+        log.info("Committed {} stock reservations for order {}", reservations.size(), orderId);
+    }
+
+    @Override
+    @Transactional
+    public void release(Long orderId) {
+        List<StockReservation> reservations = findOpenReservations(orderId);
+        if (reservations.isEmpty()) {
+            log.info("No open stock reservations to release for order {}", orderId);
+            return;
+        }
+        Map<Long, Integer> deltas = new HashMap<>(reservations.size() * 2);
+        for (StockReservation reservation : reservations) {
+            reservation.setStatus(ReservationStatus.RELEASED);
+            deltas.merge(reservation.getProductId(), reservation.getQuantity(), Integer::sum);
+        }
+        adjustCachedStockAfterCommit(deltas);
+        log.info("Released {} stock reservations for order {}", reservations.size(), orderId);
+    }
+
+    private List<StockReservation> findOpenReservations(Long orderId) {
+        // Nur offene Reservierungen: wiederholte Stripe-Events sind dadurch wirkungslos
+        List<StockReservation> reservations = new ArrayList<>(
+                reservationRepository.findByOrderIdAndStatus(orderId, ReservationStatus.RESERVED));
+        reservations.sort((a, b) -> Long.compare(a.getProductId(), b.getProductId()));
+        return reservations;
+    }
+
+    private List<StockRow> lockStockRows(Long productId) {
+        return jdbcTemplate.query(LOCK_STOCK_SQL,
+                (rs, rowNum) -> new StockRow(rs.getLong("id"), rs.getLong("quantity")), productId);
+    }
+
+    private List<Long> lockReservedQuantities(Long productId) {
+        return jdbcTemplate.query(LOCK_RESERVED_SQL, (rs, rowNum) -> rs.getLong("quantity"),
+                productId, ReservationStatus.RESERVED.name());
+    }
+
+    private void adjustCachedStockAfterCommit(Map<Long, Integer> deltas) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            inventoryQueryService.adjustCachedStock(deltas);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                inventoryQueryService.adjustCachedStock(deltas);
+            }
+        });
+    }
+
+    private record StockRow(long id, long quantity) {
+    }
+}
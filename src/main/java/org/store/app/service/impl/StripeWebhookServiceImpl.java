@@ -0,0 +1,184 @@
+package org.store.app.service.impl;
+
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.StripeObject;
+import com.stripe.model.checkout.Session;
+import com.stripe.net.ApiResource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.store.app.common.StripeEventDispatcher;
+import org.store.app.common.concurrent.PartitionedExecutor;
+import org.store.app.common.retry.RetryPolicy;
+import org.store.app.enums.StripeEventStatus;
+import org.store.app.model.StripeEvent;
+import org.store.app.repository.StripeEventRepository;
+import org.store.app.service.StripeWebhookService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Nimmt Stripe-Webhooks entgegen: Das Event wird per {@code INSERT IGNORE} in 'stripe_events' gespeichert,
+ * Stripe erhält die Antwort direkt nach diesem Commit. Verarbeitet wird auf einem nach Bestellung
+ * partitionierten Executor, Events derselben Bestellung also in Eingangsreihenfolge. Der Status
+ * PROCESSED wird in derselben Transaktion wie die Änderungen der Handler gesetzt; schlägt ein Handler fehl,
+ * bleibt das Event RECEIVED und wird nach dem Backoff von {@link #resubmitPending()} erneut eingereiht.
+ * Events, die auf diesem Knoten noch in der Queue warten, werden dabei übersprungen.
+ */
+@Slf4j
+@Service
+public class StripeWebhookServiceImpl implements StripeWebhookService {
+
+    private final StripeEventRepository stripeEventRepository;
+    private final StripeEventDispatcher stripeEventDispatcher;
+    private final PartitionedExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final RetryPolicy retryPolicy;
+    // Eingereiht, aber noch nicht gestartet
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.stripe.events.resubmit-batch-size:100}")
+    private int resubmitBatchSize;
+
+    public StripeWebhookServiceImpl(StripeEventRepository stripeEventRepository,
+                                    StripeEventDispatcher stripeEventDispatcher,
+                                    @Qualifier("stripeEventExecutor") PartitionedExecutor executor,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.stripe.events.max-attempts:8}") int maxAttempts,
+                                    @Value("${app.stripe.events.initial-backoff:PT10S}") Duration initialBackoff,
+                                    @Value("${app.stripe.events.max-backoff:PT1H}") Duration maxBackoff) {
+        this.stripeEventRepository = stripeEventRepository;
+        this.stripeEventDispatcher = stripeEventDispatcher;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retryPolicy = new RetryPolicy(maxAttempts, initialBackoff, maxBackoff);
+    }
+
+    @Override
+    @Transactional
+    public boolean accept(Event event, String payload) {
+        Long orderId = extractOrderId(event);
+        int inserted = stripeEventRepository.insertIfAbsent(event.getId(), event.getType(), orderId, payload, LocalDateTime.now());
+        if (inserted == 0) {
+            log.info("Ignoring duplicate Stripe event {} ({})", event.getId(), event.getType());
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(event.getId(), orderId, event);
+                }
+            });
+        } else {
+            submit(event.getId(), orderId, event);
+        }
+        return true;
+    }
+
+    @Override
+    public int resubmitPending() {
+        List<StripeEvent> due = stripeEventRepository.findDue(StripeEventStatus.RECEIVED, LocalDateTime.now(),
+                PageRequest.of(0, resubmitBatchSize));
+        int submitted = 0;
+        for (StripeEvent stored : due) {
+            if (submit(stored.getEventId(), stored.getOrderId(), null)) {
+                submitted++;
+            }
+        }
+        return submitted;
+    }
+
+    private boolean submit(String eventId, Long orderId, Event event) {
+        if (!queued.add(eventId)) {
+            return false;
+        }
+        long partitionKey = orderId != null ? orderId : eventId.hashCode();
+        try {
+            executor.execute(partitionKey, () -> process(eventId, event));
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Bleibt RECEIVED und wird von resubmitPending() erneut eingereiht
+            queued.remove(eventId);
+            log.warn("Stripe event queue full, deferring event {}", eventId);
+            return false;
+        }
+    }
+
+    private void process(String eventId, Event received) {
+        queued.remove(eventId);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (stripeEventRepository.markProcessed(eventId, LocalDateTime.now(), StripeEventStatus.RECEIVED, StripeEventStatus.PROCESSED) == 0) {
+                    // Bereits verarbeitet, noch im Backoff oder von einem anderen Knoten übernommen
+                    return;
+                }
+                Event event = received != null ? received : parse(eventId);
+                stripeEventDispatcher.dispatch(event);
+            });
+        } catch (Exception e) {
+            scheduleRetry(eventId, e);
+        }
+    }
+
+    private Event parse(String eventId) {
+        StripeEvent stored = stripeEventRepository.findByEventId(eventId)
+                .orElseThrow(() -> new IllegalStateException("Stripe event not found: " + eventId));
+        return ApiResource.GSON.fromJson(stored.getPayload(), Event.class);
+    }
+
+    private void scheduleRetry(String eventId, Exception error) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> stripeEventRepository.findByEventId(eventId).ifPresent(stored -> {
+                int attempts = stored.getAttempts() + 1;
+                stored.setAttempts(attempts);
+                stored.setLastError(RetryPolicy.errorMessage(error));
+                if (retryPolicy.isExhausted(attempts)) {
+                    stored.setStatus(StripeEventStatus.FAILED);
+                    log.error("Giving up on Stripe event {} ({}) after {} attempts: {}", eventId, stored.getType(), attempts, error.getMessage());
+                } else {
+                    stored.setNextAttemptAt(retryPolicy.nextAttemptAt(attempts, LocalDateTime.now()));
+                    log.warn("Processing Stripe event {} ({}) failed (attempt {}), retrying at {}: {}",
+                            eventId, stored.getType(), attempts, stored.getNextAttemptAt(), error.getMessage());
+                }
+            }));
+        } catch (Exception e) {
+            // Event bleibt RECEIVED und wird vom nächsten Lauf von resubmitPending() ohne Backoff erneut eingereiht
+            log.error("Failed to record failure of Stripe event {}: {}", eventId, e.getMessage());
+        }
+    }
+
+    private static Long extractOrderId(Event event) {
+        StripeObject object = event.getDataObjectDeserializer().getObject().orElse(null);
+        String orderId = null;
+        if (object instanceof Session session) {
+            orderId = session.getClientReferenceId();
+        } else if (object instanceof PaymentIntent paymentIntent) {
+            Map<String, String> metadata = paymentIntent.getMetadata();
+            orderId = metadata != null ? metadata.get("order_id") : null;
+        }
+        if (orderId == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(orderId);
+        } catch (NumberFormatException e) {
+            log.warn("Stripe event {} has invalid order id '{}'", event.getId(), orderId);
+            return null;
+        }
+    }
+}
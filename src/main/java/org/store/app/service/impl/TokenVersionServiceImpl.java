@@ -0,0 +1,33 @@
+package org.store.app.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.store.app.exception.ResourceNotFoundException;
+import org.store.app.repository.CustomerRepository;
+import org.store.app.service.TokenVersionService;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenVersionServiceImpl implements TokenVersionService {
+
+    private final CustomerRepository customerRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = "tokenVersions", key = "#customerId")
+    public int getCurrentVersion(Long customerId) {
+        return customerRepository.findTokenVersionById(customerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + customerId));
+    }
+
+    @Override
+    @CacheEvict(value = "tokenVersions", key = "#customerId")
+    public void evict(Long customerId) {
+        log.info("Cache 'tokenVersions' evicted for customerId={}", customerId);
+    }
+}
@@ -2,6 +2,7 @@ package org.store.app.service.impl;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -14,6 +15,8 @@ import org.store.app.exception.EmailNotVerifiedException;
 import org.store.app.model.Customer;
 import org.store.app.repository.CustomerRepository;
 import org.store.app.security.userdetails.CustomUserDetails;
+import org.store.app.security.userdetails.UserDetailsCache;
+import org.store.app.service.UserPrincipalService;
 
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -21,13 +24,29 @@ import java.util.stream.Collectors;
 @Slf4j
 @Service
 @AllArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserPrincipalService {
 
     private final CustomerRepository customerRepository;
 
+    /**
+     * Login-Pfad ({@code DaoAuthenticationProvider}): immer aus der Datenbank, inklusive Passwort-Hash.
+     */
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        Customer customer = findVerifiedCustomer(email);
+        return toUserDetails(customer, customer.getPassword());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = UserDetailsCache.CACHE_NAME, key = "T(org.store.app.security.userdetails.UserDetailsCache).key(#email)")
+    public CustomUserDetails loadPrincipalByEmail(String email) {
+        // Der Hash gelangt nie in Redis oder den lokalen Cache
+        return toUserDetails(findVerifiedCustomer(email), null);
+    }
+
+    private Customer findVerifiedCustomer(String email) {
         Customer customer = customerRepository.findByEmail(email)
                 .orElseThrow(() -> {
                     log.warn("Customer not found by email: {}", email);
@@ -36,7 +55,10 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         if (!customer.isEmailVerified()) {
             throw new EmailNotVerifiedException("Email not verified. Please check your inbox.");
         }
+        return customer;
+    }
 
+    private CustomUserDetails toUserDetails(Customer customer, String password) {
         Set<SimpleGrantedAuthority> authorities = customer.getRoles().stream()
                 .map(role -> new SimpleGrantedAuthority(role.getName()))
                 .collect(Collectors.toSet());
@@ -45,12 +67,13 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 customer.getId(),
                 customer.getEmail(),
                 customer.getName(),
-                customer.getPassword(),
+                password,
                 customer.getPhone(),
                 customer.getCountryCode(),
                 customer.getDialCode(),
                 authorities,
-                customer.isEmailVerified()
+                customer.isEmailVerified(),
+                customer.getTokenVersion()
         );
     }
 }
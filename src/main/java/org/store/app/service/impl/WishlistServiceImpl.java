@@ -8,25 +8,25 @@ import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.store.app.common.ValueWrapper;
-import org.store.app.dto.ProductInfoDTO;
 import org.store.app.dto.WishlistItemDTO;
 import org.store.app.enums.WishlistStatus;
 import org.store.app.exception.ResourceNotFoundException;
 import org.store.app.model.Customer;
 import org.store.app.model.Wishlist;
 import org.store.app.model.WishlistItem;
-import org.store.app.projection.WishlistItemProductProjection;
 import org.store.app.repository.CustomerRepository;
 import org.store.app.repository.WishlistItemRepository;
 import org.store.app.repository.WishlistRepository;
+import org.store.app.service.ProductCatalogSnapshot;
 import org.store.app.service.WishlistService;
 
 import java.nio.file.AccessDeniedException;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,6 +37,7 @@ public class WishlistServiceImpl implements WishlistService {
     private final WishlistRepository wishlistRepository;
     private final WishlistItemRepository wishlistItemRepository;
     private final CustomerRepository customerRepository;
+    private final ProductCatalogSnapshot productCatalog;
 
     @Override
     @Transactional
@@ -64,14 +65,15 @@ public class WishlistServiceImpl implements WishlistService {
             return new ValueWrapper<>(Collections.emptyList());
         }
 
-        List<WishlistItemProductProjection> projections = wishlistItemRepository.findWishlistItemsWithProductInfo(wishlist.getId());
+        List<WishlistItem> items = wishlistItemRepository.findByWishlist(wishlist);
+        Map<Long, ProductCatalogSnapshot.ProductSummary> products = productCatalog.getProducts(
+                items.stream().map(WishlistItem::getProductId).toList());
 
-        List<WishlistItemDTO> result = projections.stream()
-                .map(p -> new WishlistItemDTO(
-                        p.getProductId(),
-                        p.getUnitPrice(),
-                        new ProductInfoDTO(p.getName(), p.getDescription(), p.getImageUrl(), p.getTotalStock())
-                ))
+        // Positionen ohne Produktdaten (z.B. gelöschte Produkte) werden ausgelassen
+        List<WishlistItemDTO> result = items.stream()
+                .map(item -> products.get(item.getProductId()))
+                .filter(Objects::nonNull)
+                .map(p -> new WishlistItemDTO(p.productId(), p.sellingPrice(), p.toProductInfo()))
                 .collect(Collectors.toList());
 
         log.info("Loaded {} wishlist items from database for wishlistId={} (set in cache with Key='session:{}')", result.size(), wishlist.getId(), sessionId);
@@ -157,26 +159,14 @@ public class WishlistServiceImpl implements WishlistService {
         } else {
             Wishlist userWishlist = userWishlistOpt.get();
 
-            List<WishlistItem> sessionItems = wishlistItemRepository.findByWishlist(sessionWishlist);
-            Set<Long> existingProductIds = wishlistItemRepository.findByWishlist(userWishlist).stream()
-                    .map(WishlistItem::getProductId)
-                    .collect(Collectors.toSet());
-
-            for (WishlistItem item : sessionItems) {
-                if (!existingProductIds.contains(item.getProductId())) {
-                    WishlistItem newItem = new WishlistItem();
-                    newItem.setWishlist(userWishlist);
-                    newItem.setProductId(item.getProductId());
-                    wishlistItemRepository.save(newItem);
-                }
-                wishlistItemRepository.delete(item);
-            }
+            // Fehlende Produkte in einem Statement übernehmen; Duplikate verhindert der Unique-Key
+            int copied = wishlistItemRepository.copyMissingItems(sessionWishlist.getId(), userWishlist.getId());
+            int removed = wishlistItemRepository.deleteAllByWishlistId(sessionWishlist.getId());
             // أبقاء السيشن في حال أنتهت صالحية التوكن
             userWishlist.setSessionId(sessionWishlist.getSessionId());
             wishlistRepository.save(userWishlist);
-            if (wishlistItemRepository.findByWishlist(sessionWishlist).isEmpty()) {
-                wishlistRepository.delete(sessionWishlist);
-            }
+            wishlistRepository.deleteByIdInBulk(sessionWishlist.getId());
+            log.info("Copied {} of {} session wishlist items into wishlistId={}", copied, removed, userWishlist.getId());
         }
         log.info("Merged wishlist for '{}' and '{}'", email, sessionId);
         logCacheEvict(sessionId);
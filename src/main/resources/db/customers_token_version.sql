@@ -0,0 +1,8 @@
+-- Token-Version je Kunde (MySQL). Profil- und Passwortänderungen erhöhen sie und machen
+-- damit alle zuvor ausgestellten Access-Tokens ungültig.
+-- Pflicht für dieses Release, unabhängig von app.security.stateless-authentication: Customer bildet die
+-- Spalte immer ab, und auch der Standardpfad mit Datenbankzugriff vergleicht die Token-Version.
+-- Ohne die Spalte schlägt jede Abfrage auf 'customers' fehl. Vor dem Deployment einspielen.
+
+ALTER TABLE customers
+    ADD COLUMN token_version INT NOT NULL DEFAULT 0;
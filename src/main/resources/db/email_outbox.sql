@@ -0,0 +1,23 @@
+-- Ausgehende E-Mails (MySQL). Anfragen schreiben nur in diese Tabelle, der Versand erfolgt
+-- durch den EmailOutboxDispatcher. Ein Versandlauf übernimmt fällige Einträge per claim_token
+-- (PENDING -> SENDING); fehlgeschlagene Einträge gehen mit next_attempt_at zurück auf PENDING.
+
+CREATE TABLE IF NOT EXISTS email_outbox
+(
+    id              BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    recipient       VARCHAR(255) NOT NULL,
+    subject         VARCHAR(255) NOT NULL,
+    body            TEXT         NOT NULL,
+    html            BIT          NOT NULL,
+    status          VARCHAR(20)  NOT NULL,
+    attempts        INT          NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6)  NOT NULL,
+    claim_token     VARCHAR(36),
+    claimed_at      DATETIME(6),
+    sent_at         DATETIME(6),
+    last_error      VARCHAR(1000),
+    created_at      DATETIME(6),
+    updated_at      DATETIME(6),
+    INDEX idx_email_outbox_status_next (status, next_attempt_at),
+    INDEX idx_email_outbox_claim (claim_token)
+);
@@ -0,0 +1,2 @@
+-- Index für die seitenweise Bestellhistorie (Keyset auf created_at, id je Kunde und Status), MySQL.
+CREATE INDEX idx_orders_customer_status_created ON orders (customer_id, status, created_at, id);
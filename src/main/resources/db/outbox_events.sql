@@ -0,0 +1,22 @@
+-- Outbox für Nebenwirkungen nach dem Commit (MySQL), z. B. Bestätigungs-E-Mail und Cache-Invalidierung
+-- nach einem Stripe-Webhook. Events werden in der fachlichen Transaktion geschrieben und vom
+-- OutboxEventDispatcher mindestens einmal verarbeitet; erledigte Einträge löscht der OutboxCleanupJob.
+
+CREATE TABLE IF NOT EXISTS outbox_events
+(
+    id              BIGINT        NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    type            VARCHAR(50)   NOT NULL,
+    aggregate_id    BIGINT        NOT NULL,
+    payload         VARCHAR(255),
+    status          VARCHAR(20)   NOT NULL,
+    attempts        INT           NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6)   NOT NULL,
+    claim_token     VARCHAR(36),
+    claimed_at      DATETIME(6),
+    processed_at    DATETIME(6),
+    last_error      VARCHAR(1000),
+    created_at      DATETIME(6),
+    updated_at      DATETIME(6),
+    INDEX idx_outbox_events_status_next (status, next_attempt_at),
+    INDEX idx_outbox_events_claim (claim_token)
+);
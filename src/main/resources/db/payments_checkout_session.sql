@@ -0,0 +1,8 @@
+-- Checkout-Session je Zahlung (MySQL). Eine offene, noch gültige Session wird für dieselbe Bestellung
+-- wiederverwendet, statt bei jedem Aufruf eine neue Session bei Stripe anzulegen.
+
+ALTER TABLE payments
+    ADD COLUMN checkout_session_id         VARCHAR(255),
+    ADD COLUMN checkout_session_url        VARCHAR(1000),
+    ADD COLUMN checkout_session_expires_at DATETIME(6),
+    ADD INDEX idx_payments_order_status (order_id, status);
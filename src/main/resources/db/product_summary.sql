@@ -0,0 +1,98 @@
+-- Read-Model für die Produktanreicherung von Warenkorb, Wunschliste und Bestellungen.
+-- Ersetzt die korrelierten Subqueries auf images/stock pro Zeile durch einen einfachen Join.
+-- Die Tabellen products, images und stock gehören zum externen Schema; dieses Skript wird dort
+-- einmalig (MySQL) eingespielt. Die Trigger halten product_summary danach inkrementell aktuell.
+
+CREATE TABLE IF NOT EXISTS product_summary
+(
+    product_id    BIGINT        NOT NULL PRIMARY KEY,
+    name          VARCHAR(255),
+    description   TEXT,
+    image_url     VARCHAR(1024),
+    selling_price DECIMAL(19, 2),
+    total_stock   BIGINT        NOT NULL DEFAULT 0,
+    updated_at    DATETIME(6)   NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)
+);
+
+DELIMITER $$
+
+-- Baut die Zeile eines Produkts komplett neu auf (bzw. entfernt sie, wenn das Produkt gelöscht wurde)
+CREATE PROCEDURE refresh_product_summary(IN p_product_id BIGINT)
+BEGIN
+    IF EXISTS (SELECT 1 FROM products WHERE id = p_product_id) THEN
+        INSERT INTO product_summary (product_id, name, description, image_url, selling_price, total_stock)
+        SELECT p.id,
+               p.name,
+               p.description,
+               (SELECT i.image_url FROM images i WHERE i.product_id = p.id ORDER BY i.id ASC LIMIT 1),
+               p.selling_price,
+               (SELECT COALESCE(SUM(s.quantity), 0) FROM stock s WHERE s.product_id = p.id)
+        FROM products p
+        WHERE p.id = p_product_id
+        ON DUPLICATE KEY UPDATE name          = VALUES(name),
+                                description   = VALUES(description),
+                                image_url     = VALUES(image_url),
+                                selling_price = VALUES(selling_price),
+                                total_stock   = VALUES(total_stock);
+    ELSE
+        DELETE FROM product_summary WHERE product_id = p_product_id;
+    END IF;
+END$$
+
+-- Produkte: Stammdaten ändern sich selten, daher vollständiger Refresh der Zeile
+CREATE TRIGGER trg_products_ai AFTER INSERT ON products FOR EACH ROW
+    CALL refresh_product_summary(NEW.id)$$
+
+CREATE TRIGGER trg_products_au AFTER UPDATE ON products FOR EACH ROW
+    CALL refresh_product_summary(NEW.id)$$
+
+CREATE TRIGGER trg_products_ad AFTER DELETE ON products FOR EACH ROW
+    DELETE FROM product_summary WHERE product_id = OLD.id$$
+
+-- Bilder: Primärbild (kleinste id) neu bestimmen
+CREATE TRIGGER trg_images_ai AFTER INSERT ON images FOR EACH ROW
+    CALL refresh_product_summary(NEW.product_id)$$
+
+CREATE TRIGGER trg_images_au AFTER UPDATE ON images FOR EACH ROW
+BEGIN
+    CALL refresh_product_summary(NEW.product_id);
+    IF OLD.product_id <> NEW.product_id THEN
+        CALL refresh_product_summary(OLD.product_id);
+    END IF;
+END$$
+
+CREATE TRIGGER trg_images_ad AFTER DELETE ON images FOR EACH ROW
+    CALL refresh_product_summary(OLD.product_id)$$
+
+-- Bestand: häufigste Änderung, daher nur Delta statt Neuberechnung der Summe
+CREATE TRIGGER trg_stock_ai AFTER INSERT ON stock FOR EACH ROW
+    UPDATE product_summary SET total_stock = total_stock + NEW.quantity WHERE product_id = NEW.product_id$$
+
+CREATE TRIGGER trg_stock_au AFTER UPDATE ON stock FOR EACH ROW
+BEGIN
+    UPDATE product_summary SET total_stock = total_stock - OLD.quantity WHERE product_id = OLD.product_id;
+    UPDATE product_summary SET total_stock = total_stock + NEW.quantity WHERE product_id = NEW.product_id;
+END$$
+
+CREATE TRIGGER trg_stock_ad AFTER DELETE ON stock FOR EACH ROW
+    UPDATE product_summary SET total_stock = total_stock - OLD.quantity WHERE product_id = OLD.product_id$$
+
+DELIMITER ;
+
+-- Initiale Befüllung
+INSERT INTO product_summary (product_id, name, description, image_url, selling_price, total_stock)
+SELECT p.id,
+       p.name,
+       p.description,
+       (SELECT i.image_url FROM images i WHERE i.product_id = p.id ORDER BY i.id ASC LIMIT 1),
+       p.selling_price,
+       COALESCE(st.total_stock, 0)
+FROM products p
+         LEFT JOIN (SELECT s.product_id, SUM(s.quantity) AS total_stock
+                    FROM stock s
+                    GROUP BY s.product_id) st ON st.product_id = p.id
+ON DUPLICATE KEY UPDATE name          = VALUES(name),
+                        description   = VALUES(description),
+                        image_url     = VALUES(image_url),
+                        selling_price = VALUES(selling_price),
+                        total_stock   = VALUES(total_stock);
@@ -0,0 +1,17 @@
+-- Reservierungen von Bestand für offene Bestellungen (MySQL).
+-- Verfügbarer Bestand = SUM(stock.quantity) - SUM(stock_reservations.quantity WHERE status = 'RESERVED').
+-- Beim Abschluss der Zahlung wird die Reservierung von 'stock' abgebucht (COMMITTED),
+-- beim Ablauf der Checkout-Session wieder freigegeben (RELEASED).
+
+CREATE TABLE IF NOT EXISTS stock_reservations
+(
+    id         BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    order_id   BIGINT      NOT NULL,
+    product_id BIGINT      NOT NULL,
+    quantity   INT         NOT NULL,
+    status     VARCHAR(20) NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    INDEX idx_reservation_product_status (product_id, status),
+    INDEX idx_reservation_order (order_id)
+);
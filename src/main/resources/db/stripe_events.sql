@@ -0,0 +1,20 @@
+-- Eingegangene Stripe-Webhook-Events (MySQL). Die eindeutige event_id macht erneute Zustellungen
+-- zu einem No-op (INSERT IGNORE); verarbeitet wird asynchron, partitioniert nach order_id.
+
+CREATE TABLE IF NOT EXISTS stripe_events
+(
+    id              BIGINT        NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    event_id        VARCHAR(255)  NOT NULL,
+    type            VARCHAR(100)  NOT NULL,
+    order_id        BIGINT,
+    payload         MEDIUMTEXT    NOT NULL,
+    status          VARCHAR(20)   NOT NULL,
+    attempts        INT           NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6)   NOT NULL,
+    processed_at    DATETIME(6),
+    last_error      VARCHAR(1000),
+    created_at      DATETIME(6),
+    updated_at      DATETIME(6),
+    CONSTRAINT uk_stripe_events_event_id UNIQUE (event_id),
+    INDEX idx_stripe_events_status_next (status, next_attempt_at)
+);
@@ -0,0 +1,13 @@
+-- Unique-Key für Wunschlisten-Positionen (MySQL). Der Login-Merge übernimmt Produkte per
+-- INSERT IGNORE ... SELECT und verlässt sich darauf, dass Duplikate von der Datenbank abgewiesen werden.
+
+-- Vorhandene Duplikate entfernen (die älteste Position bleibt erhalten)
+DELETE wi
+FROM wishlist_items wi
+         JOIN wishlist_items keep
+              ON keep.wishlist_id = wi.wishlist_id
+                  AND keep.product_id = wi.product_id
+                  AND keep.id < wi.id;
+
+ALTER TABLE wishlist_items
+    ADD CONSTRAINT unique_wishlist_product UNIQUE (wishlist_id, product_id);
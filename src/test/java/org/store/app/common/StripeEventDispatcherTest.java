@@ -0,0 +1,108 @@
+package org.store.app.common;
+
+import com.stripe.model.Event;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.store.app.service.StripeEventHandlerService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StripeEventDispatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Runnable> asyncTasks = new ArrayList<>();
+    private final Executor asyncExecutor = asyncTasks::add;
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    void routesEventToAllHandlersOfItsTypeInOrder() {
+        StripeEventDispatcher dispatcher = new StripeEventDispatcher(List.of(
+                new RecordingHandler("first", false, "checkout.session.completed"),
+                new RecordingHandler("other", false, "checkout.session.expired"),
+                new RecordingHandler("second", false, "checkout.session.completed", "payment_intent.succeeded")
+        ), meterRegistry, asyncExecutor);
+
+        dispatcher.dispatch(event("checkout.session.completed"));
+        dispatcher.dispatch(event("payment_intent.succeeded"));
+
+        assertEquals(List.of("first", "second", "second"), calls);
+        // Beide Handler sind RecordingHandler und teilen sich daher den Timer des Typs
+        assertEquals(2, meterRegistry.get("stripe.events.handled")
+                .tags("type", "checkout.session.completed", "handler", "RecordingHandler")
+                .timer().count());
+        assertEquals(1, meterRegistry.get("stripe.events.handled")
+                .tags("type", "payment_intent.succeeded")
+                .timer().count());
+    }
+
+    @Test
+    void countsUnhandledAndFailedEvents() {
+        StripeEventDispatcher dispatcher = new StripeEventDispatcher(List.of(
+                new RecordingHandler("failing", false, "payment_intent.payment_failed")
+        ), meterRegistry, asyncExecutor);
+
+        dispatcher.dispatch(event("customer.created"));
+        assertThrows(IllegalStateException.class, () -> dispatcher.dispatch(event("payment_intent.payment_failed")));
+
+        assertEquals(1.0, meterRegistry.get("stripe.events.unhandled").tag("type", "customer.created").counter().count());
+        assertEquals(1.0, meterRegistry.get("stripe.events.failed").tag("type", "payment_intent.payment_failed").counter().count());
+    }
+
+    @Test
+    void asyncHandlersRunOnExecutor() {
+        StripeEventDispatcher dispatcher = new StripeEventDispatcher(List.of(
+                new RecordingHandler("sync", false, "checkout.session.completed"),
+                new RecordingHandler("async", true, "checkout.session.completed")
+        ), meterRegistry, asyncExecutor);
+
+        dispatcher.dispatch(event("checkout.session.completed"));
+        assertEquals(List.of("sync"), calls);
+
+        asyncTasks.forEach(Runnable::run);
+        assertEquals(List.of("sync", "async"), calls);
+    }
+
+    private static Event event(String type) {
+        Event event = new Event();
+        event.setId("evt_" + type);
+        event.setType(type);
+        return event;
+    }
+
+    private class RecordingHandler implements StripeEventHandlerService {
+
+        private final String name;
+        private final boolean async;
+        private final Set<String> eventTypes;
+
+        RecordingHandler(String name, boolean async, String... eventTypes) {
+            this.name = name;
+            this.async = async;
+            this.eventTypes = Set.of(eventTypes);
+        }
+
+        @Override
+        public Set<String> eventTypes() {
+            return eventTypes;
+        }
+
+        @Override
+        public void handle(Event event) {
+            if (name.equals("failing")) {
+                throw new IllegalStateException("handler failed");
+            }
+            calls.add(name);
+        }
+
+        @Override
+        public boolean async() {
+            return async;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.store.app.common.serialization;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.store.app.common.ValueWrapper;
+import org.store.app.dto.*;
+import org.store.app.enums.OrderStatus;
+import org.store.app.security.config.RedisConfig;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryRedisSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer(new RedisConfig().objectMapper());
+    private final BinaryRedisSerializer serializer = new BinaryRedisSerializer(DtoBinaryCodecs.createRegistry(), json, 64);
+
+    @Test
+    void roundTripsCartAndIsSmallerThanJson() {
+        CartDTO cart = new CartDTO(7L, List.of(
+                new CartItemDTO(1L, 2, new BigDecimal("19.99"), new ProductInfoDTO("Headphones", "Wireless", "https://img/1.jpg", 12L)),
+                new CartItemDTO(2L, 1, new BigDecimal("5.00"), null)));
+
+        byte[] bytes = serializer.serialize(cart);
+
+        assertEquals(cart, serializer.deserialize(bytes));
+        assertTrue(bytes.length < json.serialize(cart).length);
+    }
+
+    @Test
+    void roundTripsWrappedOrders() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 6, 8, 12, 34, 56, 789_000_000);
+        OrderItemDTO item = OrderItemDTO.builder().id(3L).productId(1L).quantity(2)
+                .unitPrice(new BigDecimal("1.50")).totalPrice(new BigDecimal("3.00")).canReview(true).build();
+        OrderDTO order = OrderDTO.builder().id(1L).customerId(5L).status(OrderStatus.PROCESSING)
+                .totalAmount(new BigDecimal("3.00")).items(List.of(item)).createdAt(createdAt).build();
+        ValueWrapper<List<OrderDTO>> wrapper = new ValueWrapper<>(List.of(order));
+
+        assertEquals(wrapper, serializer.deserialize(serializer.serialize(wrapper)));
+    }
+
+    @Test
+    void readsLegacyJsonEntries() {
+        CartDTO cart = new CartDTO(1L, List.of());
+
+        assertEquals(cart, serializer.deserialize(json.serialize(cart)));
+    }
+}
@@ -0,0 +1,256 @@
+package org.store.app.scheduling.email;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.store.app.enums.EmailStatus;
+import org.store.app.model.OutboundEmail;
+import org.store.app.repository.OutboundEmailRepository;
+import org.store.app.service.impl.EmailSenderServiceImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Versand aus der Outbox gegen einen lokalen SMTP-Stub: ein Block geht über eine Verbindung,
+ * abgelehnte Empfänger werden mit Backoff erneut eingeplant.
+ */
+@DataJpaTest(properties = {
+        "app.mail.outbox.workers=1",
+        "app.mail.outbox.poll-interval=PT1H"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({EmailOutboxDispatcher.class, EmailSenderServiceImpl.class, EmailOutboxDispatcherTest.MailConfig.class})
+class EmailOutboxDispatcherTest {
+
+    private static final SmtpStub SMTP = SmtpStub.start();
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+    @Autowired
+    private EmailSenderServiceImpl emailService;
+    @Autowired
+    private OutboundEmailRepository outboundEmailRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @TestConfiguration
+    static class MailConfig {
+
+        @Bean
+        JavaMailSender javaMailSender() {
+            JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+            mailSender.setHost("localhost");
+            mailSender.setPort(SMTP.port());
+            Properties properties = new Properties();
+            properties.put("mail.smtp.auth", "false");
+            properties.put("mail.smtp.starttls.enable", "false");
+            properties.put("mail.smtp.timeout", "5000");
+            mailSender.setJavaMailProperties(properties);
+            return mailSender;
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean(name = "mailSenderExecutor")
+        Executor mailSenderExecutor() {
+            return new SyncTaskExecutor();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        SMTP.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboundEmailRepository.deleteAll();
+    }
+
+    @AfterAll
+    static void stopSmtp() throws IOException {
+        SMTP.close();
+    }
+
+    @Test
+    void sendsQueuedEmailsOverSingleConnection() {
+        emailService.sendSimpleMail("a@example.com", "Order 1", "Thanks");
+        emailService.sendHtmlMail("b@example.com", "Reset", "<p>Reset</p>");
+        emailService.sendSimpleMail("c@example.com", "Order 2", "Thanks");
+        // Der Aufrufer legt nur ab, versendet wird erst vom Dispatcher
+        assertEquals(0, SMTP.connections());
+
+        assertEquals(3, dispatcher.dispatchPending());
+
+        assertEquals(1, SMTP.connections());
+        assertEquals(List.of("a@example.com", "b@example.com", "c@example.com"), SMTP.recipients().stream().sorted().toList());
+        assertEquals(3, outboundEmailRepository.countByStatus(EmailStatus.SENT));
+        assertEquals(0, meterRegistry.get("mail.outbox.queue.depth").gauge().value());
+        assertEquals(0, dispatcher.dispatchPending());
+    }
+
+    @Test
+    void rejectedRecipientIsRetriedWithBackoff() {
+        emailService.sendSimpleMail("a@example.com", "Order 1", "Thanks");
+        emailService.sendSimpleMail(SmtpStub.REJECTED, "Order 2", "Thanks");
+
+        LocalDateTime before = LocalDateTime.now();
+        assertEquals(2, dispatcher.dispatchPending());
+
+        assertEquals(1, SMTP.connections());
+        assertEquals(1, outboundEmailRepository.countByStatus(EmailStatus.SENT));
+        OutboundEmail rejected = outboundEmailRepository.findAll().stream()
+                .filter(email -> email.getStatus() == EmailStatus.PENDING)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(SmtpStub.REJECTED, rejected.getRecipient());
+        assertEquals(1, rejected.getAttempts());
+        assertTrue(rejected.getNextAttemptAt().isAfter(before));
+        assertNotNull(rejected.getLastError());
+        assertNull(rejected.getClaimToken());
+        // Vor Ablauf des Backoffs wird nichts erneut versendet
+        assertEquals(0, dispatcher.dispatchPending());
+    }
+
+    /**
+     * Minimaler SMTP-Server: nimmt alle Befehle an, lehnt nur {@link #REJECTED} als Empfänger ab.
+     */
+    static final class SmtpStub implements AutoCloseable {
+
+        static final String REJECTED = "rejected@example.com";
+
+        private final ServerSocket serverSocket;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final List<String> recipients = new CopyOnWriteArrayList<>();
+
+        private SmtpStub(ServerSocket serverSocket) {
+            this.serverSocket = serverSocket;
+        }
+
+        static SmtpStub start() {
+            try {
+                SmtpStub stub = new SmtpStub(new ServerSocket(0));
+                Thread acceptor = new Thread(stub::acceptLoop, "smtp-stub");
+                acceptor.setDaemon(true);
+                acceptor.start();
+                return stub;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        int connections() {
+            return connections.get();
+        }
+
+        List<String> recipients() {
+            return recipients;
+        }
+
+        void reset() {
+            connections.set(0);
+            recipients.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    Thread session = new Thread(() -> handle(socket), "smtp-stub-session");
+                    session.setDaemon(true);
+                    session.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void handle(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+                 PrintWriter out = new PrintWriter(socket.getOutputStream(), false, StandardCharsets.ISO_8859_1)) {
+                reply(out, "220 localhost ESMTP stub");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("RCPT TO:")) {
+                        String recipient = line.substring(line.indexOf('<') + 1, line.lastIndexOf('>'));
+                        if (REJECTED.equals(recipient)) {
+                            reply(out, "550 5.1.1 User unknown");
+                        } else {
+                            recipients.add(recipient);
+                            reply(out, "250 OK");
+                        }
+                    } else if (command.equals("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // Nachrichteninhalt wird nicht ausgewertet
+                        }
+                        reply(out, "250 OK");
+                    } else if (command.equals("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        // EHLO/HELO, MAIL FROM, RSET, NOOP
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException ignored) {
+                // Verbindung vom Client getrennt
+            }
+        }
+
+        private static void reply(PrintWriter out, String response) {
+            out.print(response + "\r\n");
+            out.flush();
+        }
+    }
+}
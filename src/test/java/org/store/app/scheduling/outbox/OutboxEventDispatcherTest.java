@@ -0,0 +1,125 @@
+package org.store.app.scheduling.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.store.app.enums.OutboxEventType;
+import org.store.app.enums.OutboxStatus;
+import org.store.app.model.OutboxEvent;
+import org.store.app.repository.OutboxEventRepository;
+import org.store.app.service.CartService;
+import org.store.app.service.OrderService;
+import org.store.app.service.OutboxService;
+import org.store.app.service.impl.OutboxServiceImpl;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Outbox-Events werden nach dem Commit verarbeitet; ein fehlerhaftes Event blockiert die übrigen nicht.
+ */
+@DataJpaTest(properties = "app.outbox.poll-interval=PT1H")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({OutboxEventDispatcher.class, OutboxServiceImpl.class, OutboxEventDispatcherTest.MetricsConfig.class})
+class OutboxEventDispatcherTest {
+
+    @Autowired
+    private OutboxEventDispatcher dispatcher;
+    @Autowired
+    private OutboxService outboxService;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private OrderService orderService;
+    @MockitoBean
+    private CartService cartService;
+
+    @TestConfiguration
+    static class MetricsConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void processesEventsCommittedWithTheBusinessTransaction() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            outboxService.enqueue(OutboxEventType.ORDER_CONFIRMATION_EMAIL, 1L, "EUR");
+            outboxService.enqueue(OutboxEventType.CART_CACHE_EVICTION, 5L, "guest-session");
+        });
+
+        assertEquals(2, dispatcher.dispatchPending());
+
+        verify(orderService).sendOrderConfirmationEmail(1L, "EUR");
+        verify(cartService).evictCartCache(5L, "guest-session");
+        assertEquals(2, outboxEventRepository.countByStatus(OutboxStatus.DONE));
+        assertEquals(0, dispatcher.dispatchPending());
+    }
+
+    @Test
+    void rolledBackTransactionLeavesNoEvent() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.executeWithoutResult(status -> {
+            outboxService.enqueue(OutboxEventType.ORDER_CONFIRMATION_EMAIL, 1L, "EUR");
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, outboxEventRepository.count());
+        assertThrows(IllegalTransactionStateException.class,
+                () -> outboxService.enqueue(OutboxEventType.ORDER_CONFIRMATION_EMAIL, 1L, "EUR"));
+    }
+
+    @Test
+    void failedEventIsRetriedWithBackoff() {
+        doThrow(new IllegalStateException("smtp down")).when(orderService).sendOrderConfirmationEmail(1L, "EUR");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            outboxService.enqueue(OutboxEventType.ORDER_CONFIRMATION_EMAIL, 1L, "EUR");
+            outboxService.enqueue(OutboxEventType.CART_CACHE_EVICTION, 5L, "guest-session");
+        });
+
+        LocalDateTime before = LocalDateTime.now();
+        assertEquals(2, dispatcher.dispatchPending());
+
+        verify(cartService).evictCartCache(5L, "guest-session");
+        OutboxEvent failed = outboxEventRepository.findAll().stream()
+                .filter(event -> event.getType() == OutboxEventType.ORDER_CONFIRMATION_EMAIL)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(OutboxStatus.PENDING, failed.getStatus());
+        assertEquals(1, failed.getAttempts());
+        assertEquals("smtp down", failed.getLastError());
+        assertTrue(failed.getNextAttemptAt().isAfter(before));
+        assertEquals(1, outboxEventRepository.countByStatus(OutboxStatus.DONE));
+    }
+}
@@ -0,0 +1,162 @@
+package org.store.app.service.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.store.app.common.cache.CartCacheIndex;
+import org.store.app.enums.CartStatus;
+import org.store.app.mapper.CartMapper;
+import org.store.app.model.Cart;
+import org.store.app.model.CartItem;
+import org.store.app.model.Customer;
+import org.store.app.repository.CartItemRepository;
+import org.store.app.repository.CartRepository;
+import org.store.app.service.InventoryQueryService;
+import org.store.app.service.OutboxService;
+import org.store.app.service.ProductCatalogSnapshot;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Regressionstest für die Anzahl der SQL-Statements pro Warenkorb-Operation (H2 im MySQL-Modus).
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(CartServiceImpl.class)
+class CartServiceImplStatementCountTest {
+
+    @Autowired
+    private CartServiceImpl cartService;
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private InventoryQueryService inventoryQueryService;
+    @MockitoBean
+    private CartMapper cartMapper;
+    @MockitoBean
+    private CartCacheIndex cartCacheIndex;
+    @MockitoBean
+    private ProductCatalogSnapshot productCatalog;
+    @MockitoBean
+    private OutboxService outboxService;
+
+    private Statistics statistics;
+    private Cart customerCart;
+    private Cart guestCart;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        when(inventoryQueryService.getAvailableStock(anyLong())).thenReturn(100);
+        when(inventoryQueryService.getAvailableStock(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> productIds = invocation.getArgument(0);
+            return productIds.stream().collect(Collectors.toMap(Function.identity(), id -> 100));
+        });
+
+        Customer customer = new Customer();
+        customer.setEmail("customer@example.com");
+        customer.setName("Customer");
+        customer.setEmailVerified(true);
+        entityManager.persist(customer);
+
+        customerCart = new Cart();
+        customerCart.setCustomer(customer);
+        customerCart.setSessionId("customer-session");
+        customerCart.setStatus(CartStatus.ACTIVE);
+        entityManager.persist(customerCart);
+
+        guestCart = new Cart();
+        guestCart.setSessionId("guest-session");
+        guestCart.setStatus(CartStatus.ACTIVE);
+        entityManager.persist(guestCart);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void addToCartUsesLookupUpsertAndCheck() throws Exception {
+        statistics.clear();
+        cartService.addToCart("customer@example.com", "guest-session", 7L, BigDecimal.TEN, 2);
+        assertEquals(3, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        statistics.clear();
+        cartService.addToCart("customer@example.com", "guest-session", 7L, BigDecimal.TEN, 3);
+        assertEquals(3, statistics.getPrepareStatementCount());
+
+        // Der Warenkorb des Kunden hat Vorrang vor dem Session-Warenkorb
+        assertEquals(5, cartItemRepository.findQuantityByCartIdAndProductId(customerCart.getId(), 7L).orElseThrow());
+    }
+
+    @Test
+    void mergeCartOnLoginIsIndependentOfGuestCartSize() {
+        // 200 Positionen im Gast-Warenkorb, davon 20 Produkte bereits im Warenkorb des Kunden
+        for (long productId = 1; productId <= 200; productId++) {
+            entityManager.persist(cartItem(guestCart, productId, 1));
+        }
+        for (long productId = 1; productId <= 20; productId++) {
+            entityManager.persist(cartItem(customerCart, productId, 2));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics.clear();
+        cartService.mergeCartOnLogin("customer@example.com", "guest-session");
+        // Warenkörbe, Positionen, Batch der zusammengeführten Mengen, Session des Kunden-Warenkorbs,
+        // Verschieben der übrigen Positionen, Löschen der Reste und des Gast-Warenkorbs
+        assertEquals(7, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        assertEquals(200, cartItemRepository.findByCartId(customerCart.getId()).size());
+        assertEquals(3, cartItemRepository.findQuantityByCartIdAndProductId(customerCart.getId(), 1L).orElseThrow());
+        assertEquals(1, cartItemRepository.findQuantityByCartIdAndProductId(customerCart.getId(), 200L).orElseThrow());
+        assertTrue(cartRepository.findById(guestCart.getId()).isEmpty());
+    }
+
+    @Test
+    void sessionIdOfMergedCustomerCartDoesNotResolveForOthers() {
+        statistics.clear();
+        // Der Kunden-Warenkorb trägt nach dem Zusammenführen die Session-ID des Gasts
+        assertTrue(cartRepository.findActiveCart(null, "customer-session").isEmpty());
+        assertTrue(cartRepository.findActiveCart("other@example.com", "customer-session").isEmpty());
+        assertEquals(guestCart.getId(), cartRepository.findActiveCart("other@example.com", "guest-session").orElseThrow().getId());
+        // Eine Abfrage je Lookup, der Kunde wird nicht nachgeladen
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    private static CartItem cartItem(Cart cart, long productId, int quantity) {
+        CartItem item = new CartItem();
+        item.setCart(cart);
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        item.setUnitPrice(BigDecimal.TEN);
+        return item;
+    }
+}
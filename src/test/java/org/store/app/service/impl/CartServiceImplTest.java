@@ -0,0 +1,75 @@
+package org.store.app.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.store.app.common.cache.CartCacheIndex;
+import org.store.app.dto.CartDTO;
+import org.store.app.enums.CartStatus;
+import org.store.app.mapper.CartMapper;
+import org.store.app.model.Cart;
+import org.store.app.repository.CartItemRepository;
+import org.store.app.repository.CartRepository;
+import org.store.app.repository.CustomerRepository;
+import org.store.app.service.InventoryQueryService;
+import org.store.app.service.OutboxService;
+import org.store.app.service.ProductCatalogSnapshot;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CartServiceImplTest {
+
+    @Mock
+    private CartRepository cartRepository;
+    @Mock
+    private CartItemRepository cartItemRepository;
+    @Mock
+    private CustomerRepository customerRepository;
+    @Mock
+    private InventoryQueryService inventoryQueryService;
+    @Mock
+    private CartMapper cartMapper;
+    @Mock
+    private CartCacheIndex cartCacheIndex;
+    @Mock
+    private ProductCatalogSnapshot productCatalog;
+    @Mock
+    private OutboxService outboxService;
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager("cart");
+
+    @InjectMocks
+    private CartServiceImpl cartService;
+
+    @Test
+    void updateCartStatusEvictsOnlyTheConvertedCart() {
+        Cache cache = cacheManager.getCache("cart");
+        cache.put("session:converted", new CartDTO());
+        cache.put("session:other-device", new CartDTO());
+        cache.put("session:someone-else", new CartDTO());
+
+        Cart cart = new Cart();
+        cart.setId(1L);
+        cart.setSessionId("converted");
+        when(cartRepository.findById(1L)).thenReturn(Optional.of(cart));
+        when(cartCacheIndex.removeAll(1L)).thenReturn(Set.of("other-device"));
+
+        cartService.updateCartStatus(1L, CartStatus.CONVERTED);
+
+        assertEquals(CartStatus.CONVERTED, cart.getStatus());
+        assertNull(cache.get("session:converted"));
+        assertNull(cache.get("session:other-device"));
+        assertNotNull(cache.get("session:someone-else"));
+    }
+}
@@ -0,0 +1,255 @@
+package org.store.app.service.impl;
+
+import com.stripe.Stripe;
+import com.stripe.exception.InvalidRequestException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.store.app.enums.OrderStatus;
+import org.store.app.enums.PaymentStatus;
+import org.store.app.model.Customer;
+import org.store.app.model.Order;
+import org.store.app.model.Payment;
+import org.store.app.repository.CustomerRepository;
+import org.store.app.repository.OrderRepository;
+import org.store.app.repository.PaymentRepository;
+import org.store.app.security.userdetails.CustomUserDetails;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checkout-Sessions gegen einen lokalen Stripe-Stub: offene Sessions werden wiederverwendet,
+ * ein hängender Stripe-Aufruf endet nach dem Timeout, nach einem Fehler gibt es eine neue Zahlung.
+ */
+@DataJpaTest(properties = "app.stripe.checkout.timeout=PT1S")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CheckoutServiceImpl.class, PaymentServiceImpl.class, CheckoutServiceImplTest.ExecutorConfig.class})
+class CheckoutServiceImplTest {
+
+    private static final AtomicInteger REQUESTS = new AtomicInteger();
+    private static final AtomicLong DELAY_MILLIS = new AtomicLong();
+    private static final AtomicBoolean FAIL = new AtomicBoolean();
+    private static final List<String> REQUEST_BODIES = new CopyOnWriteArrayList<>();
+    private static final List<String> IDEMPOTENCY_KEYS = new CopyOnWriteArrayList<>();
+
+    private static HttpServer stripeStub;
+    private static String previousApiKey;
+
+    @Autowired
+    private CheckoutServiceImpl checkoutService;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private PaymentRepository paymentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private CustomUserDetails userDetails;
+    private Long orderId;
+
+    @TestConfiguration
+    static class ExecutorConfig {
+
+        @Bean(name = "stripeCheckoutExecutor")
+        ThreadPoolTaskExecutor stripeCheckoutExecutor() {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(2);
+            executor.setMaxPoolSize(2);
+            executor.setThreadNamePrefix("stripe-checkout-test-");
+            return executor;
+        }
+    }
+
+    @BeforeAll
+    static void startStripeStub() throws IOException {
+        stripeStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stripeStub.createContext("/v1/checkout/sessions", exchange -> {
+            int number = REQUESTS.incrementAndGet();
+            REQUEST_BODIES.add(URLDecoder.decode(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+            IDEMPOTENCY_KEYS.add(exchange.getRequestHeaders().getFirst("Idempotency-Key"));
+            try {
+                Thread.sleep(DELAY_MILLIS.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (FAIL.get()) {
+                byte[] error = """
+                        {"error": {"type": "invalid_request_error", "message": "Invalid currency"}}
+                        """.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(400, error.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(error);
+                }
+                return;
+            }
+            String body = """
+                    {"id": "cs_test_%d", "object": "checkout.session", "url": "https://checkout.stripe.test/cs_test_%d", "expires_at": %d}
+                    """.formatted(number, number, Instant.now().plusSeconds(3600).getEpochSecond());
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            } catch (IOException ignored) {
+                // Client hat nach dem Timeout bereits getrennt
+            }
+        });
+        // Eigener Thread je Anfrage, damit ein hängender Aufruf die Wiederholung nicht blockiert
+        stripeStub.setExecutor(Executors.newCachedThreadPool());
+        stripeStub.start();
+        previousApiKey = Stripe.apiKey;
+        Stripe.apiKey = "sk_test_stub";
+        Stripe.overrideApiBase("http://localhost:" + stripeStub.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopStripeStub() {
+        Stripe.overrideApiBase(Stripe.LIVE_API_BASE);
+        Stripe.apiKey = previousApiKey;
+        stripeStub.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        REQUESTS.set(0);
+        DELAY_MILLIS.set(0);
+        FAIL.set(false);
+        REQUEST_BODIES.clear();
+        IDEMPOTENCY_KEYS.clear();
+
+        Customer customer = new Customer();
+        customer.setEmail("checkout@example.com");
+        customer.setName("Customer");
+        customer.setEmailVerified(true);
+        customerRepository.save(customer);
+
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setStatus(OrderStatus.PENDING);
+        order.setTotalAmount(new BigDecimal("49.90"));
+        orderId = orderRepository.save(order).getId();
+
+        userDetails = new CustomUserDetails(customer.getId(), customer.getEmail(), customer.getName(), "secret",
+                null, null, null, List.of(), true, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentRepository.deleteAll();
+        orderRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void reusesOpenSessionOfSameOrder() throws Exception {
+        String first = checkoutService.createCheckoutSession(orderId, "EUR", userDetails).get(5, TimeUnit.SECONDS);
+        String second = checkoutService.createCheckoutSession(orderId, "EUR", userDetails).get(5, TimeUnit.SECONDS);
+
+        assertEquals("https://checkout.stripe.test/cs_test_1", first);
+        assertEquals(first, second);
+        assertEquals(1, REQUESTS.get());
+
+        List<Payment> payments = paymentRepository.findAll();
+        assertEquals(1, payments.size());
+        Payment payment = payments.get(0);
+        assertEquals(PaymentStatus.PENDING, payment.getStatus());
+        assertEquals("cs_test_1", payment.getCheckoutSessionId());
+        assertNotNull(payment.getCheckoutSessionExpiresAt());
+
+        String body = REQUEST_BODIES.get(0);
+        assertTrue(body.contains("payment_method_types[6]=giropay"), body);
+        assertTrue(body.contains("line_items[0][price_data][unit_amount]=4990"), body);
+        assertTrue(body.contains("payment_intent_data[metadata][payment_id]=" + payment.getId()), body);
+    }
+
+    @Test
+    void slowStripeCallTimesOutAndRetryUsesSameIdempotencyKey() throws Exception {
+        DELAY_MILLIS.set(2000);
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> checkoutService.createCheckoutSession(orderId, "EUR", userDetails).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, error.getCause());
+
+        DELAY_MILLIS.set(0);
+        String url = checkoutService.createCheckoutSession(orderId, "EUR", userDetails).get(5, TimeUnit.SECONDS);
+
+        assertNotNull(url);
+        // Die offene Zahlung ohne Session wird weiterverwendet, Stripe erkennt den Wiederholungsversuch am Key
+        assertEquals(1, paymentRepository.count());
+        assertEquals(2, IDEMPOTENCY_KEYS.size());
+        assertEquals(IDEMPOTENCY_KEYS.get(0), IDEMPOTENCY_KEYS.get(1));
+    }
+
+    @Test
+    void sessionlessPaymentIsNotReusedAfterWindow() throws Exception {
+        DELAY_MILLIS.set(2000);
+        assertThrows(ExecutionException.class,
+                () -> checkoutService.createCheckoutSession(orderId, "EUR", userDetails).get(5, TimeUnit.SECONDS));
+        jdbcTemplate.update("UPDATE payments SET created_at = DATEADD('MINUTE', -2, created_at)");
+
+        DELAY_MILLIS.set(0);
+        checkoutService.createCheckoutSession(orderId, "EUR", userDetails).get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, paymentRepository.count());
+        assertEquals(2, IDEMPOTENCY_KEYS.size());
+        assertNotEquals(IDEMPOTENCY_KEYS.get(0), IDEMPOTENCY_KEYS.get(1));
+    }
+
+    @Test
+    void stripeErrorFailsPaymentAndRetryUsesNewIdempotencyKey() throws Exception {
+        FAIL.set(true);
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> checkoutService.createCheckoutSession(orderId, "EUR", userDetails).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(InvalidRequestException.class, error.getCause());
+        Payment failed = paymentRepository.findAll().get(0);
+        assertEquals(PaymentStatus.FAILED, failed.getStatus());
+
+        FAIL.set(false);
+        String url = checkoutService.createCheckoutSession(orderId, "EUR", userDetails).get(5, TimeUnit.SECONDS);
+
+        assertNotNull(url);
+        assertEquals(2, paymentRepository.count());
+        assertEquals(2, IDEMPOTENCY_KEYS.size());
+        assertNotEquals(IDEMPOTENCY_KEYS.get(0), IDEMPOTENCY_KEYS.get(1));
+    }
+}
@@ -0,0 +1,96 @@
+package org.store.app.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.store.app.service.CartService;
+import org.store.app.service.WishlistService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Je Session läuft höchstens ein Login-Merge; Leser derselben Session warten auf sein Ende.
+ */
+class LoginMergeServiceImplTest {
+
+    private final CartService cartService = mock(CartService.class);
+    private final WishlistService wishlistService = mock(WishlistService.class);
+
+    @Test
+    void secondLoginReusesInFlightMerge() {
+        List<Runnable> tasks = new ArrayList<>();
+        LoginMergeServiceImpl service = service(tasks::add);
+
+        CompletableFuture<Void> first = service.scheduleMerge("customer@example.com", "guest-session");
+        CompletableFuture<Void> second = service.scheduleMerge("customer@example.com", "guest-session");
+
+        assertSame(first, second);
+        assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        assertTrue(first.isDone());
+        verify(cartService, times(1)).mergeCartOnLogin("customer@example.com", "guest-session");
+        verify(wishlistService, times(1)).mergeWishlistOnLogin("customer@example.com", "guest-session");
+
+        // Nach Abschluss startet ein neuer Login wieder einen eigenen Merge
+        service.scheduleMerge("customer@example.com", "guest-session");
+        assertEquals(2, tasks.size());
+    }
+
+    @Test
+    void readerWaitsForMerge() throws Exception {
+        CountDownLatch mergeStarted = new CountDownLatch(1);
+        CountDownLatch releaseMerge = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            mergeStarted.countDown();
+            releaseMerge.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(cartService).mergeCartOnLogin("customer@example.com", "guest-session");
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            LoginMergeServiceImpl service = service(executor);
+            service.scheduleMerge("customer@example.com", "guest-session");
+            assertTrue(mergeStarted.await(5, TimeUnit.SECONDS));
+
+            CompletableFuture<Void> reader = CompletableFuture.runAsync(() -> {
+                service.awaitMerge("guest-session");
+                cartService.getActiveCart("customer@example.com", "guest-session");
+            }, executor);
+            Thread.sleep(200);
+            assertFalse(reader.isDone());
+
+            releaseMerge.countDown();
+            reader.get(5, TimeUnit.SECONDS);
+            InOrder order = inOrder(cartService);
+            order.verify(cartService).mergeCartOnLogin("customer@example.com", "guest-session");
+            order.verify(cartService).getActiveCart("customer@example.com", "guest-session");
+        } finally {
+            releaseMerge.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private LoginMergeServiceImpl service(Executor executor) {
+        LoginMergeServiceImpl service = new LoginMergeServiceImpl(cartService, wishlistService, executor);
+        ReflectionTestUtils.setField(service, "awaitTimeout", Duration.ofSeconds(5));
+        return service;
+    }
+}
@@ -0,0 +1,219 @@
+package org.store.app.service.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.store.app.common.cache.OrderCacheVersions;
+import org.store.app.dto.OrderDTO;
+import org.store.app.dto.OrderPageDTO;
+import org.store.app.enums.AddressType;
+import org.store.app.enums.OrderStatus;
+import org.store.app.enums.PaymentStatus;
+import org.store.app.mapper.OrderItemMapperImpl;
+import org.store.app.mapper.OrderMapperImpl;
+import org.store.app.model.Customer;
+import org.store.app.model.CustomerAddress;
+import org.store.app.model.Order;
+import org.store.app.model.OrderItem;
+import org.store.app.model.Payment;
+import org.store.app.service.CartService;
+import org.store.app.service.CustomerAddressService;
+import org.store.app.service.EmailService;
+import org.store.app.service.InventoryQueryService;
+import org.store.app.service.ProductCatalogSnapshot;
+import org.store.app.service.ProductCatalogSnapshot.ProductSummary;
+import org.store.app.service.StockReservationService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Regressionstest gegen N+1-Abfragen beim Laden der Bestellungen eines Kunden (H2 im MySQL-Modus).
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({OrderServiceImpl.class, OrderMapperImpl.class, OrderItemMapperImpl.class})
+class OrderServiceImplStatementCountTest {
+
+    private static final int ORDERS = 10;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private CustomerAddressService customerAddressService;
+    @MockitoBean
+    private EmailService emailService;
+    @MockitoBean
+    private CartService cartService;
+    // Der SpEL-Cache-Key referenziert die Bean über ihren Namen
+    @MockitoBean(name = "orderCacheVersions")
+    private OrderCacheVersions orderCacheVersions;
+    @MockitoBean
+    private ProductCatalogSnapshot productCatalog;
+    @MockitoBean
+    private InventoryQueryService inventoryQueryService;
+    @MockitoBean
+    private StockReservationService stockReservationService;
+
+    private Statistics statistics;
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        when(productCatalog.getProducts(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> productIds = invocation.getArgument(0);
+            return productIds.stream().collect(Collectors.toMap(Function.identity(),
+                    id -> new ProductSummary(id, "Product " + id, "Description", null, BigDecimal.TEN, 10)));
+        });
+
+        Customer customer = new Customer();
+        customer.setEmail("orders@example.com");
+        customer.setName("Customer");
+        customer.setEmailVerified(true);
+        entityManager.persist(customer);
+        customerId = customer.getId();
+
+        CustomerAddress shipping = address(customer, AddressType.SHIPPING);
+        CustomerAddress billing = address(customer, AddressType.BILLING);
+
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order();
+            order.setCustomer(customer);
+            order.setStatus(OrderStatus.PROCESSING);
+            order.setShippingAddress(shipping);
+            order.setBillingAddress(billing);
+            order.setTotalAmount(BigDecimal.valueOf(30));
+            for (long productId = 1; productId <= ITEMS_PER_ORDER; productId++) {
+                OrderItem item = new OrderItem();
+                item.setOrder(order);
+                item.setProductId(productId);
+                item.setQuantity(1);
+                item.setUnitPrice(BigDecimal.TEN);
+                item.setTotalPrice(BigDecimal.TEN);
+                order.getItems().add(item);
+            }
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getOrdersLoadsOrdersItemsAndAddressesWithoutNPlusOne() {
+        statistics.clear();
+        List<OrderDTO> orders = orderService.getOrdersByCustomerAndStatus(customerId, OrderStatus.PROCESSING, null, ORDERS).getOrders();
+
+        assertEquals(ORDERS, orders.size());
+        orders.forEach(order -> {
+            assertEquals(ITEMS_PER_ORDER, order.getItems().size());
+            assertNotNull(order.getShippingAddress());
+            assertNotNull(order.getBillingAddress());
+        });
+        // IDs der Seite, Bestellungen inkl. Positionen und Adressen, bewertete Produkte des Kunden
+        assertEquals(0, statistics.getCollectionFetchCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "Expected at most 3 statements, got " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void cursorWalksThroughAllOrdersWithoutDuplicates() {
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            OrderPageDTO page = orderService.getOrdersByCustomerAndStatus(customerId, OrderStatus.PROCESSING, cursor, 4);
+            page.getOrders().forEach(order -> assertTrue(seen.add(order.getId()), "Duplicate order " + order.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(ORDERS, seen.size());
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void sweepCancelsAbandonedPendingOrdersAndReleasesTheirReservations() {
+        Customer customer = entityManager.find(Customer.class, customerId);
+        Order abandoned = pendingOrder(customer);
+        Order inCheckout = pendingOrder(customer);
+        Payment payment = new Payment();
+        payment.setOrder(inCheckout);
+        payment.setStatus(PaymentStatus.PENDING);
+        payment.setAmount(BigDecimal.TEN);
+        payment.setCheckoutSessionExpiresAt(LocalDateTime.now().plusMinutes(30));
+        entityManager.persist(payment);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(1, orderService.cancelAbandonedOrders(LocalDateTime.now().plusMinutes(1), 10));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(OrderStatus.CANCELLED, entityManager.find(Order.class, abandoned.getId()).getStatus());
+        assertEquals(OrderStatus.PENDING, entityManager.find(Order.class, inCheckout.getId()).getStatus());
+        verify(stockReservationService).release(abandoned.getId());
+        verify(stockReservationService, never()).release(inCheckout.getId());
+    }
+
+    @Test
+    void cancellingAnOrderReleasesItsReservation() {
+        Order order = pendingOrder(entityManager.find(Customer.class, customerId));
+        entityManager.flush();
+        entityManager.clear();
+
+        orderService.updateOrderStatus(order.getId(), OrderStatus.CANCELLED, customerId);
+
+        verify(stockReservationService).release(order.getId());
+    }
+
+    private Order pendingOrder(Customer customer) {
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setStatus(OrderStatus.PENDING);
+        order.setTotalAmount(BigDecimal.TEN);
+        entityManager.persist(order);
+        return order;
+    }
+
+    private CustomerAddress address(Customer customer, AddressType type) {
+        CustomerAddress address = new CustomerAddress();
+        address.setCustomer(customer);
+        address.setAddressLine("Street 1");
+        address.setCity("Berlin");
+        address.setCountry("DE");
+        address.setAddressType(type);
+        entityManager.persist(address);
+        return address;
+    }
+}
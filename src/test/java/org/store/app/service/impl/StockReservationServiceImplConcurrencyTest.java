@@ -0,0 +1,190 @@
+package org.store.app.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.store.app.common.cache.OrderCacheVersions;
+import org.store.app.dto.CartDTO;
+import org.store.app.dto.CartItemDTO;
+import org.store.app.enums.AddressType;
+import org.store.app.enums.ReservationStatus;
+import org.store.app.exception.ResourceNotFoundException;
+import org.store.app.mapper.OrderItemMapperImpl;
+import org.store.app.mapper.OrderMapperImpl;
+import org.store.app.model.Customer;
+import org.store.app.model.CustomerAddress;
+import org.store.app.repository.CustomerAddressRepository;
+import org.store.app.repository.CustomerRepository;
+import org.store.app.repository.OrderRepository;
+import org.store.app.repository.StockReservationRepository;
+import org.store.app.service.CartService;
+import org.store.app.service.CustomerAddressService;
+import org.store.app.service.EmailService;
+import org.store.app.service.InventoryQueryService;
+import org.store.app.service.ProductCatalogSnapshot;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+/**
+ * Viele parallele Bestellungen auf dasselbe Produkt dürfen zusammen nie mehr als den Bestand reservieren.
+ * Die Bestellungen laufen vollständig über {@code createOrder}, inklusive der Lesezugriffe vor der Reservierung.
+ * H2 bildet den transaktionsweiten Snapshot von MySQL unter REPEATABLE READ nicht nach; dass die offenen
+ * Reservierungen sperrend gelesen werden, sichert dieser Test daher nur indirekt ab.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:reservations;MODE=MySQL;LOCK_TIMEOUT=10000")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({StockReservationServiceImpl.class, OrderServiceImpl.class, OrderMapperImpl.class, OrderItemMapperImpl.class})
+class StockReservationServiceImplConcurrencyTest {
+
+    private static final long PRODUCT_ID = 42L;
+    private static final int STOCK = 5;
+    private static final int BUYERS = 20;
+
+    @Autowired
+    private StockReservationServiceImpl reservationService;
+    @Autowired
+    private OrderServiceImpl orderService;
+    @Autowired
+    private StockReservationRepository reservationRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private CustomerAddressRepository customerAddressRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private InventoryQueryService inventoryQueryService;
+    @MockitoBean
+    private CustomerAddressService customerAddressService;
+    @MockitoBean
+    private CartService cartService;
+    @MockitoBean
+    private EmailService emailService;
+    @MockitoBean
+    private ProductCatalogSnapshot productCatalog;
+    @MockitoBean
+    private OrderCacheVersions orderCacheVersions;
+
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = new Customer();
+        customer.setEmail("buyer@example.com");
+        customer.setName("Buyer");
+        customer.setEmailVerified(true);
+        customerId = customerRepository.save(customer).getId();
+
+        CustomerAddress address = new CustomerAddress();
+        address.setCustomer(customer);
+        address.setAddressLine("Street 1");
+        address.setCity("Berlin");
+        address.setCountry("DE");
+        address.setAddressType(AddressType.SHIPPING);
+        customerAddressRepository.save(address);
+        when(customerAddressService.getDefaultAddress(customerId, AddressType.SHIPPING)).thenReturn(address);
+
+        CartItemDTO item = new CartItemDTO();
+        item.setProductId(PRODUCT_ID);
+        item.setQuantity(1);
+        item.setUnitPrice(BigDecimal.TEN);
+        CartDTO cart = new CartDTO();
+        cart.setItemDTOS(List.of(item));
+        when(cartService.getActiveCart(customer.getEmail(), null)).thenReturn(cart);
+        // Die Vorprüfung gegen den gecachten Bestand lässt alle durch; entscheidend ist die Reservierung
+        when(inventoryQueryService.getAvailableStock(anyCollection())).thenReturn(Map.of(PRODUCT_ID, STOCK));
+
+        // Die Tabelle 'stock' gehört zum externen Schema und wird hier nachgebildet
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS stock (id BIGINT AUTO_INCREMENT PRIMARY KEY, product_id BIGINT NOT NULL, quantity INT NOT NULL)");
+        jdbcTemplate.update("INSERT INTO stock (product_id, quantity) VALUES (?, ?)", PRODUCT_ID, 2);
+        jdbcTemplate.update("INSERT INTO stock (product_id, quantity) VALUES (?, ?)", PRODUCT_ID, STOCK - 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll();
+        orderRepository.deleteAll();
+        customerAddressRepository.deleteAll();
+        customerRepository.deleteAll();
+        jdbcTemplate.execute("DROP TABLE stock");
+    }
+
+    @Test
+    void concurrentReservationsNeverExceedStock() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < BUYERS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        orderService.createOrder(null, customerId);
+                        succeeded.incrementAndGet();
+                    } catch (ResourceNotFoundException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(STOCK, succeeded.get());
+        assertEquals(BUYERS - STOCK, rejected.get());
+        assertEquals(STOCK, reservationRepository.sumQuantityByProductIdAndStatus(PRODUCT_ID, ReservationStatus.RESERVED));
+        // Abgelehnte Bestellungen werden samt Reservierung zurückgerollt
+        assertEquals(STOCK, orderRepository.count());
+    }
+
+    @Test
+    void commitDecrementsStockAndReleaseFreesReservation() {
+        reservationService.reserve(1L, Map.of(PRODUCT_ID, 3));
+        reservationService.reserve(2L, Map.of(PRODUCT_ID, 2));
+
+        reservationService.commit(1L);
+        reservationService.release(2L);
+        // Wiederholte Events ändern nichts mehr
+        reservationService.commit(1L);
+        reservationService.release(2L);
+
+        Integer stock = jdbcTemplate.queryForObject("SELECT SUM(quantity) FROM stock WHERE product_id = ?", Integer.class, PRODUCT_ID);
+        assertEquals(STOCK - 3, stock);
+        assertEquals(0, reservationRepository.sumQuantityByProductIdAndStatus(PRODUCT_ID, ReservationStatus.RESERVED));
+        assertEquals(1, reservationRepository.findByOrderIdAndStatus(2L, ReservationStatus.RELEASED).size());
+    }
+}
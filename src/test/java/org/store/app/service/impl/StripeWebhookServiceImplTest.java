@@ -0,0 +1,177 @@
+package org.store.app.service.impl;
+
+import com.stripe.model.Event;
+import com.stripe.model.EventDataObjectDeserializer;
+import com.stripe.model.checkout.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.store.app.common.StripeEventDispatcher;
+import org.store.app.common.concurrent.PartitionedExecutor;
+import org.store.app.enums.StripeEventStatus;
+import org.store.app.model.StripeEvent;
+import org.store.app.repository.StripeEventRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Doppelte Zustellungen werden nur einmal verarbeitet, Events einer Bestellung in Eingangsreihenfolge.
+ */
+@DataJpaTest(properties = "app.stripe.events.initial-backoff=PT0S")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({StripeWebhookServiceImpl.class, StripeWebhookServiceImplTest.ExecutorConfig.class})
+class StripeWebhookServiceImplTest {
+
+    @Autowired
+    private StripeWebhookServiceImpl stripeWebhookService;
+    @Autowired
+    private StripeEventRepository stripeEventRepository;
+
+    @MockitoBean
+    private StripeEventDispatcher stripeEventDispatcher;
+
+    @TestConfiguration
+    static class ExecutorConfig {
+
+        @Bean(name = "stripeEventExecutor", destroyMethod = "shutdown")
+        PartitionedExecutor stripeEventExecutor() {
+            return new PartitionedExecutor("stripe-events-test", 4, 100);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        stripeEventRepository.deleteAll();
+    }
+
+    @Test
+    void duplicateDeliveryIsProcessedOnce() throws Exception {
+        Event event = checkoutEvent("evt_1", 7L);
+
+        assertTrue(stripeWebhookService.accept(event, "{\"id\":\"evt_1\"}"));
+        assertFalse(stripeWebhookService.accept(event, "{\"id\":\"evt_1\"}"));
+        awaitStatus("evt_1", StripeEventStatus.PROCESSED);
+        assertFalse(stripeWebhookService.accept(event, "{\"id\":\"evt_1\"}"));
+
+        verify(stripeEventDispatcher, times(1)).dispatch(event);
+        assertEquals(1, stripeEventRepository.count());
+        assertEquals(7L, stripeEventRepository.findByEventId("evt_1").orElseThrow().getOrderId());
+    }
+
+    @Test
+    void eventsOfOneOrderAreProcessedInArrivalOrder() throws Exception {
+        List<String> processed = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            Event event = invocation.getArgument(0);
+            processed.add(event.getId());
+            return null;
+        }).when(stripeEventDispatcher).dispatch(any());
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String eventId = "evt_order_" + i;
+            expected.add(eventId);
+            stripeWebhookService.accept(checkoutEvent(eventId, 7L), "{}");
+        }
+        awaitStatus("evt_order_19", StripeEventStatus.PROCESSED);
+
+        assertEquals(expected, processed);
+    }
+
+    @Test
+    void failedEventIsResubmitted() throws Exception {
+        Event event = checkoutEvent("evt_fail", 9L);
+        doThrow(new IllegalStateException("database busy")).when(stripeEventDispatcher).dispatch(event);
+
+        stripeWebhookService.accept(event, "{}");
+        StripeEvent failed = awaitStatus("evt_fail", StripeEventStatus.RECEIVED, 1);
+        assertEquals("database busy", failed.getLastError());
+
+        doNothing().when(stripeEventDispatcher).dispatch(any());
+        assertEquals(1, stripeWebhookService.resubmitPending());
+        awaitStatus("evt_fail", StripeEventStatus.PROCESSED);
+    }
+
+    @Test
+    void queuedEventIsNotResubmitted() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Event first = checkoutEvent("evt_running", 11L);
+        Event second = checkoutEvent("evt_waiting", 11L);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(stripeEventDispatcher).dispatch(first);
+
+        stripeWebhookService.accept(first, "{}");
+        stripeWebhookService.accept(second, "{}");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Nur das laufende Event ist noch nicht committet; das wartende steckt bereits in der Queue
+        assertEquals(1, stripeWebhookService.resubmitPending());
+        release.countDown();
+        awaitStatus("evt_waiting", StripeEventStatus.PROCESSED);
+        awaitStatus("evt_running", StripeEventStatus.PROCESSED);
+
+        verify(stripeEventDispatcher, times(1)).dispatch(first);
+        verify(stripeEventDispatcher, times(1)).dispatch(second);
+    }
+
+    private StripeEvent awaitStatus(String eventId, StripeEventStatus status) throws InterruptedException {
+        return awaitStatus(eventId, status, 0);
+    }
+
+    private StripeEvent awaitStatus(String eventId, StripeEventStatus status, int minAttempts) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            Optional<StripeEvent> stored = stripeEventRepository.findByEventId(eventId);
+            if (stored.isPresent() && stored.get().getStatus() == status && stored.get().getAttempts() >= minAttempts) {
+                return stored.get();
+            }
+            Thread.sleep(20);
+        }
+        return fail("Stripe event " + eventId + " did not reach status " + status);
+    }
+
+    private static Event checkoutEvent(String eventId, Long orderId) {
+        Session session = new Session();
+        session.setClientReferenceId(orderId.toString());
+        EventDataObjectDeserializer deserializer = mock(EventDataObjectDeserializer.class);
+        when(deserializer.getObject()).thenReturn(Optional.of(session));
+        Event event = mock(Event.class);
+        when(event.getId()).thenReturn(eventId);
+        when(event.getType()).thenReturn("checkout.session.completed");
+        when(event.getDataObjectDeserializer()).thenReturn(deserializer);
+        return event;
+    }
+}